@@ -0,0 +1,84 @@
+package com.formily.bench;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.formily.model.Schema;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * 基准测试用的Formily Schema样本
+ * small、medium 取自真实保存的Schema（1KB / 13KB，26个字段）；
+ * huge 由 medium 的 Tabs 复制200份并重命名字段得到（约2.5MB，5000+字段），用于放大树遍历与序列化开销；
+ * large 复制400份（约5MB），用于分配量对比。
+ */
+public final class Fixtures {
+    private Fixtures() {}
+
+    public static final String SMALL = "small";
+    public static final String MEDIUM = "medium";
+    public static final String HUGE = "huge";
+    public static final String LARGE = "large";
+
+    private static final int HUGE_COPIES = 200;
+    private static final int LARGE_COPIES = 400;
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * Schema的value（含schema，不含initial_values），每次返回新的树
+     */
+    public static ObjectNode value(String name) {
+        if (HUGE.equals(name)) {
+            return replicated(HUGE_COPIES);
+        }
+        if (LARGE.equals(name)) {
+            return replicated(LARGE_COPIES);
+        }
+        try (InputStream in = Fixtures.class.getResourceAsStream("/fixtures/" + name + ".json")) {
+            if (in == null) {
+                throw new IllegalArgumentException("Unknown fixture: " + name);
+            }
+            return (ObjectNode) MAPPER.readTree(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static Schema schema(String id, String name) {
+        Schema schema = new Schema();
+        schema.setId(id);
+        schema.setValue(value(name));
+        return schema;
+    }
+
+    private static ObjectNode replicated(int count) {
+        ObjectNode value = value(MEDIUM);
+        ObjectNode properties = (ObjectNode) value.get("schema").get("properties");
+        ObjectNode copies = MAPPER.createObjectNode();
+        for (int i = 0; i < count; i++) {
+            copyRenamed(properties, copies, "_" + i);
+        }
+        ((ObjectNode) value.get("schema")).set("properties", copies);
+        return value;
+    }
+
+    private static void copyRenamed(JsonNode properties, ObjectNode out, String suffix) {
+        Iterator<Map.Entry<String, JsonNode>> fields = properties.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> e = fields.next();
+            ObjectNode field = (ObjectNode) e.getValue().deepCopy();
+            if (field.has("properties")) {
+                // Distinct keys, otherwise generated values of the copies would collapse into one.
+                ObjectNode children = MAPPER.createObjectNode();
+                copyRenamed(field.get("properties"), children, suffix);
+                field.set("properties", children);
+            }
+            out.set(e.getKey() + suffix, field);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.formily.bench;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.formily.model.Schema;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schema的Jackson序列化/反序列化（与REST请求体、响应体的编解码路径相同）
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SchemaJsonBenchmark {
+
+    @Param({Fixtures.SMALL, Fixtures.MEDIUM, Fixtures.HUGE})
+    public String fixture;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private Schema schema;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws IOException {
+        schema = Fixtures.schema("bench", fixture);
+        json = objectMapper.writeValueAsBytes(schema);
+    }
+
+    @Benchmark
+    public Schema deserialize() throws IOException {
+        return objectMapper.readValue(json, Schema.class);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return objectMapper.writeValueAsBytes(schema);
+    }
+}
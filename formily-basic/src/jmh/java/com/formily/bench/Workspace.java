@@ -0,0 +1,33 @@
+package com.formily.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * 临时工作目录：SchemaService按user.dir解析存储路径，基准测试在独立目录中运行，结束后删除
+ */
+public final class Workspace implements AutoCloseable {
+
+    private final Path dir;
+    private final String previousUserDir;
+
+    public Workspace() throws IOException {
+        this.dir = Files.createTempDirectory("formily-jmh");
+        Files.createDirectories(dir.resolve("src/main/resources"));
+        this.previousUserDir = System.getProperty("user.dir");
+        System.setProperty("user.dir", dir.toString());
+    }
+
+    @Override
+    public void close() throws IOException {
+        System.setProperty("user.dir", previousUserDir);
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path p : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(p);
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.formily.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.formily.bench.Fixtures;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 预览HTML渲染：整体生成字符串与直接写入Writer（流式响应）两种方式
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PreviewRenderBenchmark {
+
+    @Param({Fixtures.SMALL, Fixtures.MEDIUM, Fixtures.HUGE})
+    public String fixture;
+
+    private JsonNode value;
+    private final Writer sink = Writer.nullWriter();
+
+    @Setup
+    public void setUp() {
+        value = Fixtures.value(fixture);
+    }
+
+    @Benchmark
+    public String render() {
+        return SchemaPreviewRenderer.render(value);
+    }
+
+    @Benchmark
+    public void renderStreaming() throws IOException {
+        SchemaPreviewRenderer.render(value, sink);
+    }
+}
@@ -0,0 +1,61 @@
+package com.formily.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.formily.bench.Fixtures;
+import com.formily.bench.Workspace;
+import com.formily.model.Schema;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 初始值生成：完整的 ensureInitialValuesPopulated（含内容哈希与计划缓存查找）与单独的计划编译
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InitialValuesBenchmark {
+
+    @Param({Fixtures.SMALL, Fixtures.MEDIUM, Fixtures.HUGE})
+    public String fixture;
+
+    private Workspace workspace;
+    private SchemaService service;
+    private JsonNode schemaNode;
+    private final RandomSource random = RandomSource.threadLocal();
+
+    @Setup
+    public void setUp() throws IOException {
+        workspace = new Workspace();
+        service = new SchemaService();
+        schemaNode = Fixtures.value(fixture).get("schema");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        service.close();
+        workspace.close();
+    }
+
+    @Benchmark
+    public Schema populate() {
+        // Fresh value wrapper each time; the schema tree itself is shared and not modified.
+        ObjectNode value = JsonNodeFactory.instance.objectNode();
+        value.set("schema", schemaNode);
+        Schema schema = new Schema();
+        schema.setValue(value);
+        service.ensureInitialValuesPopulated(schema, random);
+        return schema;
+    }
+
+    @Benchmark
+    public InitialValuesPlan compilePlan() {
+        return InitialValuesPlan.compile(schemaNode);
+    }
+}
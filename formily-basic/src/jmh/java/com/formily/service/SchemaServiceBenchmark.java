@@ -0,0 +1,70 @@
+package com.formily.service;
+
+import com.formily.bench.Fixtures;
+import com.formily.bench.Workspace;
+import com.formily.config.StorageProperties;
+import com.formily.model.Schema;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SchemaService读写与列表：cache=false 时每次读取都解析存储文件
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SchemaServiceBenchmark {
+
+    private static final int SCHEMAS = 20;
+
+    @Param({Fixtures.SMALL, Fixtures.MEDIUM, Fixtures.HUGE})
+    public String fixture;
+
+    @Param({"true", "false"})
+    public boolean cache;
+
+    private Workspace workspace;
+    private SchemaService service;
+    private int next;
+
+    @Setup
+    public void setUp() throws IOException {
+        workspace = new Workspace();
+        StorageProperties properties = new StorageProperties();
+        properties.getCache().setEnabled(cache);
+        service = new SchemaService(properties);
+        for (int i = 0; i < SCHEMAS; i++) {
+            service.saveSchema(Fixtures.schema("s" + i, fixture));
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        service.close();
+        workspace.close();
+    }
+
+    @Benchmark
+    public Schema read() throws IOException {
+        next = (next + 1) % SCHEMAS;
+        return service.getSchemaById("s" + next);
+    }
+
+    @Benchmark
+    public Schema write() throws IOException {
+        // Includes initial-value generation and the data-file write, as a POST /schema would.
+        next = (next + 1) % SCHEMAS;
+        return service.saveSchema(Fixtures.schema("s" + next, fixture));
+    }
+
+    @Benchmark
+    public List<Schema> list() throws IOException {
+        return service.getAllSchemas();
+    }
+}
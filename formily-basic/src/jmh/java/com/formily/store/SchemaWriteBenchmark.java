@@ -0,0 +1,79 @@
+package com.formily.store;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.formily.bench.Fixtures;
+import com.formily.model.Schema;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 写入Schema文档时去掉initial_values的两种方式：复制整棵树后删除该键，与遍历原树时跳过该键
+ * 输出写到丢弃字节的流，gc.alloc.rate.norm 只反映序列化路径本身的分配；large 约5MB。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SchemaWriteBenchmark {
+
+    @Param({Fixtures.MEDIUM, Fixtures.LARGE})
+    public String fixture;
+
+    @Param({"JSON", "SMILE"})
+    public StorageEncoding encoding;
+
+    // writeValue closes its target; OutputStream.nullOutputStream() would reject every write after the first.
+    private final OutputStream sink = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+    private ObjectWriter writer;
+    private Schema schema;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        writer = new StorageCodecs(encoding, objectMapper).writer();
+        schema = Fixtures.schema("bench", fixture);
+        // One initial value per top-level field, as a save request would carry.
+        ObjectNode initialValues = objectMapper.createObjectNode();
+        Iterator<String> keys = schema.getValue().get("schema").get("properties").fieldNames();
+        keys.forEachRemaining(key -> initialValues.put(key, key + "_value"));
+        ((ObjectNode) schema.getValue()).set("initial_values", initialValues);
+    }
+
+    @Benchmark
+    public void copyThenWrite() throws IOException {
+        // The previous approach: deep copy of the whole value to drop one key.
+        Schema toWrite = new Schema();
+        toWrite.setId(schema.getId());
+        ObjectNode copy = ((ObjectNode) schema.getValue()).deepCopy();
+        copy.remove("initial_values");
+        toWrite.setValue(copy);
+        writer.writeValue(sink, toWrite);
+    }
+
+    @Benchmark
+    public void filteredWrite() throws IOException {
+        writer.writeValue(sink, StoreSupport.withoutInitialValues(schema));
+    }
+
+    @Benchmark
+    public JsonNode copyOnly() {
+        return schema.getValue().deepCopy();
+    }
+}
@@ -2,12 +2,14 @@ package com.formily;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 /**
  * Spring Boot主应用类
  * 项目启动入口
  */
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class FormilyBasicApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,62 @@
+package com.formily.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 请求异步处理配置（前缀 formily.async）
+ * 开启后SchemaController的文件I/O在独立的有界执行器上运行，Tomcat工作线程不再被慢磁盘占满。
+ */
+@ConfigurationProperties(prefix = "formily.async")
+public class AsyncProperties {
+
+    /** Run SchemaController file I/O off the servlet threads. */
+    private boolean enabled = false;
+    /** Use virtual threads when the JDK provides them (21+); platform threads otherwise. */
+    private boolean virtualThreads = true;
+    /** Upper bound on I/O tasks running at once. */
+    private int maxConcurrency = 16;
+    /** Tasks allowed to wait for a slot; beyond this requests are rejected with 503. */
+    private int queueCapacity = 256;
+    /** Timeout of a single read; timed-out reads get 503. Writes and streamed response bodies are not limited. */
+    private long timeoutMillis = 10_000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public void setVirtualThreads(boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public void setMaxConcurrency(int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    public void setTimeoutMillis(long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
+}
@@ -0,0 +1,109 @@
+package com.formily.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 同时限制并发数与排队深度的执行器
+ * 运行在支持虚拟线程的JDK上时每个任务一个虚拟线程，并发由信号量限制；否则使用固定大小的平台线程池。
+ * 排队任务超过上限时立即抛出 {@link RejectedExecutionException}，而不是无限堆积。
+ */
+public class BoundedExecutor implements Executor, AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(BoundedExecutor.class);
+
+    private final ExecutorService delegate;
+    // Only needed for virtual threads; a fixed platform pool bounds concurrency by itself.
+    private final Semaphore slots;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final int maxPending;
+    private final boolean virtual;
+
+    public BoundedExecutor(String name, int maxConcurrency, int queueCapacity, boolean preferVirtualThreads) {
+        int concurrency = Math.max(1, maxConcurrency);
+        this.maxPending = concurrency + Math.max(0, queueCapacity);
+        ExecutorService virtualExecutor = preferVirtualThreads ? newVirtualThreadExecutor() : null;
+        this.virtual = virtualExecutor != null;
+        if (virtual) {
+            this.delegate = virtualExecutor;
+            this.slots = new Semaphore(concurrency);
+        } else {
+            AtomicInteger counter = new AtomicInteger();
+            this.delegate = new ThreadPoolExecutor(concurrency, concurrency, 60, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), r -> {
+                        Thread t = new Thread(r, name + "-" + counter.incrementAndGet());
+                        t.setDaemon(true);
+                        return t;
+                    });
+            ((ThreadPoolExecutor) delegate).allowCoreThreadTimeOut(true);
+            this.slots = null;
+        }
+        log.info("{} executor: {} threads, concurrency {}, queue {}", name, virtual ? "virtual" : "platform",
+                concurrency, maxPending - concurrency);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (pending.incrementAndGet() > maxPending) {
+            pending.decrementAndGet();
+            throw new RejectedExecutionException("I/O executor saturated");
+        }
+        try {
+            delegate.execute(() -> {
+                try {
+                    if (slots == null) {
+                        task.run();
+                        return;
+                    }
+                    slots.acquireUninterruptibly();
+                    try {
+                        task.run();
+                    } finally {
+                        slots.release();
+                    }
+                } finally {
+                    pending.decrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.decrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * 排队中与执行中的任务数
+     */
+    public int pending() {
+        return pending.get();
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    @Override
+    public void close() {
+        delegate.shutdownNow();
+    }
+
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            // Looked up reflectively so the module still builds and runs on JDK 17.
+            Method factory = java.util.concurrent.Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
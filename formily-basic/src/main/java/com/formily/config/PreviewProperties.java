@@ -0,0 +1,31 @@
+package com.formily.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 预览渲染相关配置（前缀 formily.preview）
+ */
+@ConfigurationProperties(prefix = "formily.preview")
+public class PreviewProperties {
+
+    /** Upper bound on cached rendered previews; 0 disables the cache. */
+    private int cacheMaxEntries = 256;
+    /** Upper bound on the summed size of cached HTML (two bytes per char). */
+    private long cacheMaxWeightBytes = 16L * 1024 * 1024;
+
+    public int getCacheMaxEntries() {
+        return cacheMaxEntries;
+    }
+
+    public void setCacheMaxEntries(int cacheMaxEntries) {
+        this.cacheMaxEntries = cacheMaxEntries;
+    }
+
+    public long getCacheMaxWeightBytes() {
+        return cacheMaxWeightBytes;
+    }
+
+    public void setCacheMaxWeightBytes(long cacheMaxWeightBytes) {
+        this.cacheMaxWeightBytes = cacheMaxWeightBytes;
+    }
+}
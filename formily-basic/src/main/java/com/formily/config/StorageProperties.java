@@ -0,0 +1,291 @@
+package com.formily.config;
+
+import com.formily.store.FsyncPolicy;
+import com.formily.store.StorageEngine;
+import com.formily.store.StorageEncoding;
+import com.formily.store.StorageLayout;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 存储相关配置（前缀 formily.storage）
+ * 默认值即为未配置时的行为，SchemaService的无参构造同样使用这些默认值。
+ */
+@ConfigurationProperties(prefix = "formily.storage")
+public class StorageProperties {
+
+    /** Storage engine: file (one JSON file per schema) or log (append-only segment log). */
+    private StorageEngine engine = StorageEngine.FILE;
+    /** Number of per-id write lock stripes; rounded up to a power of two. */
+    private int lockStripes = 64;
+    /** Directory layout of the file engine: flat or sharded (schema/ab/cd/{id}.json). */
+    private StorageLayout layout = StorageLayout.FLAT;
+    /** On-disk encoding of schema/data documents; reads detect the encoding per file, so stores may be mixed. */
+    private StorageEncoding encoding = StorageEncoding.JSON;
+    /** Rewrite legacy-format files once at startup so reads can skip the compatibility probes. */
+    private boolean migrateLegacyOnStartup = false;
+    private final Cache cache = new Cache();
+    private final Log log = new Log();
+    private final Batch batch = new Batch();
+    private final Submissions submissions = new Submissions();
+    private final WriteBehind writeBehind = new WriteBehind();
+    /** Durability of schema/data writes: always, batch (group commit) or none. */
+    private FsyncPolicy fsync = FsyncPolicy.BATCH;
+    /** Group-commit interval when fsync=batch; bounds how much can be lost on power failure. */
+    private long fsyncIntervalMillis = 200;
+
+    public int getLockStripes() {
+        return lockStripes;
+    }
+
+    public void setLockStripes(int lockStripes) {
+        this.lockStripes = lockStripes;
+    }
+
+    public StorageEngine getEngine() {
+        return engine;
+    }
+
+    public void setEngine(StorageEngine engine) {
+        this.engine = engine;
+    }
+
+    public StorageLayout getLayout() {
+        return layout;
+    }
+
+    public void setLayout(StorageLayout layout) {
+        this.layout = layout;
+    }
+
+    public StorageEncoding getEncoding() {
+        return encoding;
+    }
+
+    public void setEncoding(StorageEncoding encoding) {
+        this.encoding = encoding;
+    }
+
+    public boolean isMigrateLegacyOnStartup() {
+        return migrateLegacyOnStartup;
+    }
+
+    public void setMigrateLegacyOnStartup(boolean migrateLegacyOnStartup) {
+        this.migrateLegacyOnStartup = migrateLegacyOnStartup;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public Log getLog() {
+        return log;
+    }
+
+    public Batch getBatch() {
+        return batch;
+    }
+
+    public Submissions getSubmissions() {
+        return submissions;
+    }
+
+    public WriteBehind getWriteBehind() {
+        return writeBehind;
+    }
+
+    public FsyncPolicy getFsync() {
+        return fsync;
+    }
+
+    public void setFsync(FsyncPolicy fsync) {
+        this.fsync = fsync;
+    }
+
+    public long getFsyncIntervalMillis() {
+        return fsyncIntervalMillis;
+    }
+
+    public void setFsyncIntervalMillis(long fsyncIntervalMillis) {
+        this.fsyncIntervalMillis = fsyncIntervalMillis;
+    }
+
+    /**
+     * 已解析Schema/数据树的内存缓存
+     */
+    public static class Cache {
+        /** Set to false to always read from disk. */
+        private boolean enabled = true;
+        /** Upper bound on cached entries per cache (schema and data are cached separately). */
+        private int maxEntries = 1024;
+        /** Upper bound on the summed on-disk size of cached entries per cache. */
+        private long maxWeightBytes = 64L * 1024 * 1024;
+        /** Watch the schema/data directories so out-of-band edits evict stale entries and refresh the search index. */
+        private boolean watchEnabled = true;
+        /** Upper bound on compiled initial-value generation plans, keyed by schema content hash. */
+        private int planMaxEntries = 256;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public long getMaxWeightBytes() {
+            return maxWeightBytes;
+        }
+
+        public void setMaxWeightBytes(long maxWeightBytes) {
+            this.maxWeightBytes = maxWeightBytes;
+        }
+
+        public boolean isWatchEnabled() {
+            return watchEnabled;
+        }
+
+        public void setWatchEnabled(boolean watchEnabled) {
+            this.watchEnabled = watchEnabled;
+        }
+
+        public int getPlanMaxEntries() {
+            return planMaxEntries;
+        }
+
+        public void setPlanMaxEntries(int planMaxEntries) {
+            this.planMaxEntries = planMaxEntries;
+        }
+    }
+
+    /**
+     * 日志结构存储引擎（engine=log）
+     */
+    public static class Log {
+        /** Roll over to a new segment once the active one would exceed this size. */
+        private long segmentMaxBytes = 64L * 1024 * 1024;
+        /** How often sealed segments are checked for compaction; 0 disables background compaction. */
+        private long compactionIntervalMillis = 60_000;
+        /** Compact a sealed segment once at least this fraction of it is overwritten or deleted. */
+        private double compactionMinDeadRatio = 0.5;
+
+        public long getSegmentMaxBytes() {
+            return segmentMaxBytes;
+        }
+
+        public void setSegmentMaxBytes(long segmentMaxBytes) {
+            this.segmentMaxBytes = segmentMaxBytes;
+        }
+
+        public long getCompactionIntervalMillis() {
+            return compactionIntervalMillis;
+        }
+
+        public void setCompactionIntervalMillis(long compactionIntervalMillis) {
+            this.compactionIntervalMillis = compactionIntervalMillis;
+        }
+
+        public double getCompactionMinDeadRatio() {
+            return compactionMinDeadRatio;
+        }
+
+        public void setCompactionMinDeadRatio(double compactionMinDeadRatio) {
+            this.compactionMinDeadRatio = compactionMinDeadRatio;
+        }
+    }
+
+    /**
+     * 批量接口（/schema/batch/*）
+     */
+    public static class Batch {
+        /** Worker threads shared by all batch requests; bounds concurrent file I/O. */
+        private int parallelism = 8;
+        /** Largest accepted batch; bigger requests are rejected with 400. */
+        private int maxItems = 500;
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        public int getMaxItems() {
+            return maxItems;
+        }
+
+        public void setMaxItems(int maxItems) {
+            this.maxItems = maxItems;
+        }
+    }
+
+    /**
+     * 表单提交记录（/schema/{id}/submissions），落盘策略沿用 fsync / fsync-interval-millis
+     */
+    public static class Submissions {
+        /** Roll over to a new NDJSON segment once the active one would exceed this size. */
+        private long segmentMaxBytes = 64L * 1024 * 1024;
+        /** Largest accepted POST (an array of submissions); bigger requests are rejected with 400. */
+        private int maxBatchItems = 1000;
+        /** Close a schema's log (its file handles and offset index) after this long without access; 0 keeps logs open. */
+        private long idleCloseMillis = 60_000;
+
+        public long getSegmentMaxBytes() {
+            return segmentMaxBytes;
+        }
+
+        public void setSegmentMaxBytes(long segmentMaxBytes) {
+            this.segmentMaxBytes = segmentMaxBytes;
+        }
+
+        public int getMaxBatchItems() {
+            return maxBatchItems;
+        }
+
+        public void setMaxBatchItems(int maxBatchItems) {
+            this.maxBatchItems = maxBatchItems;
+        }
+
+        public long getIdleCloseMillis() {
+            return idleCloseMillis;
+        }
+
+        public void setIdleCloseMillis(long idleCloseMillis) {
+            this.idleCloseMillis = idleCloseMillis;
+        }
+    }
+
+    /**
+     * 延迟写入：保存只更新内存，后台按间隔把每个id的最新内容合并写入存储
+     */
+    public static class WriteBehind {
+        /** Opt-in; saves return before they reach the disk, so a crash can lose up to one interval of saves. */
+        private boolean enabled = false;
+        /** How often pending saves are written out; repeated saves of one id within it cost a single write. */
+        private long flushIntervalMillis = 1000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getFlushIntervalMillis() {
+            return flushIntervalMillis;
+        }
+
+        public void setFlushIntervalMillis(long flushIntervalMillis) {
+            this.flushIntervalMillis = flushIntervalMillis;
+        }
+    }
+}
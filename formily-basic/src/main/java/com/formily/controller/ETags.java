@@ -0,0 +1,76 @@
+package com.formily.controller;
+
+import org.springframework.http.HttpHeaders;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ETag工具：生成强校验ETag并匹配 If-None-Match 请求头
+ */
+final class ETags {
+    private ETags() {}
+
+    static String quote(String tag) {
+        return "\"" + tag + "\"";
+    }
+
+    /**
+     * If-None-Match 是否命中（支持逗号分隔的多个值、弱校验前缀 W/ 与 *）
+     * @param ifNoneMatch 请求头，可以为null
+     * @param etag 带引号的当前ETag
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isEmpty()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 解析 If-Match 为不带引号的版本标记列表，用于写操作的乐观并发控制
+     * 弱校验标记（W/）原样保留，因此不会与任何当前版本相等（If-Match 只做强比较）；* 表示任意版本，返回空列表。
+     * @param ifMatch 请求头中的各个值
+     */
+    static List<String> expectedTags(List<String> ifMatch) {
+        List<String> tags = new ArrayList<>(ifMatch.size());
+        for (String value : ifMatch) {
+            String tag = value.trim();
+            if (tag.equals("*")) {
+                return List.of();
+            }
+            if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+                tag = tag.substring(1, tag.length() - 1);
+            }
+            tags.add(tag);
+        }
+        return tags;
+    }
+
+    /**
+     * 条件请求是否可返回304：有 If-None-Match 时只看ETag，否则比较 If-Modified-Since（秒精度）
+     * @param headers 请求头
+     * @param etag 带引号的当前ETag
+     * @param lastModified 最后修改时间（毫秒）
+     */
+    static boolean notModified(HttpHeaders headers, String etag, long lastModified) {
+        List<String> ifNoneMatch = headers.getIfNoneMatch();
+        if (!ifNoneMatch.isEmpty()) {
+            return matches(String.join(",", ifNoneMatch), etag);
+        }
+        long ifModifiedSince = headers.getIfModifiedSince();
+        return ifModifiedSince >= 0 && lastModified / 1000 * 1000 <= ifModifiedSince;
+    }
+}
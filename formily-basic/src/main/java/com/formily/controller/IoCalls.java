@@ -0,0 +1,101 @@
+package com.formily.controller;
+
+import com.formily.config.AsyncProperties;
+import com.formily.config.BoundedExecutor;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 执行控制器中的文件I/O并统一映射异常
+ * 异步模式（formily.async.enabled）下在有界I/O执行器上运行，Tomcat线程立即释放；
+ * 否则在请求线程上直接执行。IOException → 500，IllegalArgumentException → 400，执行器饱和 → 503。
+ * 只有读取（{@link #run}）受超时限制，超时返回503；写入（{@link #write}）一直等到结果：
+ * 超时返回的失败会让客户端重试，而任务仍会提交，POST 创建与提交记录因此会被写入两次。
+ * 执行器不注册为Bean：任何Executor类型的Bean都会让Spring Boot不再创建 applicationTaskExecutor，
+ * 而流式响应（StreamingResponseBody）应在后者上运行，不占用I/O并发名额，也不受这里的超时限制。
+ */
+@Component
+class IoCalls {
+
+    private static final Logger log = LoggerFactory.getLogger(IoCalls.class);
+
+    @FunctionalInterface
+    interface IoCall<T> {
+        ResponseEntity<T> call() throws IOException;
+    }
+
+    private final boolean async;
+    private final long timeoutMillis;
+    private final BoundedExecutor executor;
+
+    IoCalls(AsyncProperties properties) {
+        this.async = properties.isEnabled();
+        this.timeoutMillis = properties.getTimeoutMillis();
+        this.executor = async
+                ? new BoundedExecutor("formily-request-io", properties.getMaxConcurrency(),
+                        properties.getQueueCapacity(), properties.isVirtualThreads())
+                : null;
+    }
+
+    @PreDestroy
+    void close() {
+        if (executor != null) {
+            executor.close();
+        }
+    }
+
+    /**
+     * 执行幂等的读取，超过 timeout-millis 返回503
+     */
+    <T> CompletableFuture<ResponseEntity<T>> run(IoCall<T> call) {
+        return submit(call, true);
+    }
+
+    /**
+     * 执行写入，不设超时，响应总是反映写入的实际结果
+     */
+    <T> CompletableFuture<ResponseEntity<T>> write(IoCall<T> call) {
+        return submit(call, false);
+    }
+
+    private <T> CompletableFuture<ResponseEntity<T>> submit(IoCall<T> call, boolean timed) {
+        if (!async) {
+            return CompletableFuture.completedFuture(invoke(call));
+        }
+        try {
+            CompletableFuture<ResponseEntity<T>> result = CompletableFuture.supplyAsync(() -> invoke(call), executor);
+            // Only the I/O call is timed; a streamed body returned by it runs afterwards without a limit.
+            return timed ? result.completeOnTimeout(unavailable(), timeoutMillis, TimeUnit.MILLISECONDS) : result;
+        } catch (RejectedExecutionException e) {
+            // Shed load instead of queueing without bound behind a slow disk; the call never ran, so a retry is safe.
+            return CompletableFuture.completedFuture(unavailable());
+        }
+    }
+
+    private static <T> ResponseEntity<T> unavailable() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .build();
+    }
+
+    private static <T> ResponseEntity<T> invoke(IoCall<T> call) {
+        try {
+            return call.call();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IOException e) {
+            log.warn("Schema I/O failed", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
@@ -1,17 +1,43 @@
 package com.formily.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.formily.model.BatchItemResult;
 import com.formily.model.Schema;
+import com.formily.model.SchemaPage;
+import com.formily.model.SchemaQuery;
+import com.formily.model.SchemaSearchResult;
+import com.formily.model.SchemaSort;
+import com.formily.model.SchemaSummary;
+import com.formily.model.SchemaVersion;
+import com.formily.model.SubmissionPage;
+import com.formily.model.SubmissionReceipt;
+import com.formily.service.BoundedCache;
+import com.formily.service.PatchConflictException;
+import com.formily.service.PatchFormat;
 import com.formily.service.SchemaService;
+import com.formily.service.SubmissionService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Schema控制器
@@ -22,68 +48,296 @@ import java.util.Map;
 @CrossOrigin(origins = "*", allowedHeaders = "*")
 public class SchemaController {
 
+    private static final String JSON_PATCH_VALUE = "application/json-patch+json";
+    private static final String MERGE_PATCH_VALUE = "application/merge-patch+json";
+    private static final MediaType JSON_PATCH = MediaType.parseMediaType(JSON_PATCH_VALUE);
+    private static final MediaType MERGE_PATCH = MediaType.parseMediaType(MERGE_PATCH_VALUE);
+    // Sent with both the 200 and the 304 so a revalidated entry keeps the same policy.
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     @Autowired
     private SchemaService schemaService;
 
+    @Autowired
+    private SubmissionService submissionService;
+
+    @Autowired
+    private SchemaPreviewCache previewCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private IoCalls io;
+
     /**
      * 获取所有Schema
      * @return Schema列表
      */
     @GetMapping
-    public ResponseEntity<List<Schema>> getAllSchemas() {
+    public CompletableFuture<ResponseEntity<List<Schema>>> getAllSchemas() {
+        return io.run(() -> ResponseEntity.ok(schemaService.getAllSchemas()));
+    }
+
+    /**
+     * 流式获取所有Schema（GET /schema?stream=true），输出与 GET /schema 相同的JSON数组
+     * 边读边写，内存占用与Schema数量无关；响应开始后出现的错误只能通过断开连接体现。
+     */
+    @GetMapping(params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamAllSchemas() {
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.writeStartArray();
+                writeAllSchemas(generator, false);
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * 以NDJSON流式获取所有Schema（Accept: application/x-ndjson），每行一个Schema
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllSchemasNdjson() {
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                // Lines are terminated explicitly; the default root separator would be a space.
+                generator.setRootValueSeparator(null);
+                writeAllSchemas(generator, true);
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private void writeAllSchemas(JsonGenerator generator, boolean newlineDelimited) throws IOException {
+        // Flushing after every value would turn each schema into its own network write.
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        boolean[] first = {true};
+        schemaService.forEachSchema(schema -> {
+            writer.writeValue(generator, schema);
+            if (newlineDelimited) {
+                generator.writeRaw('\n');
+            }
+            if (first[0]) {
+                // Push the first element out early; the rest rides the response buffer.
+                generator.flush();
+                first[0] = false;
+            }
+        });
+    }
+
+    /**
+     * 分页获取Schema
+     * @param offset 跳过条数，最大 {@link SchemaService#MAX_OFFSET}，更深的页通过cursor获取
+     * @param cursor 上一页返回的nextCursor
+     * @param limit 每页条数
+     * @param sort 排序：id、-id、modified、-modified
+     * @param includeInitialValues 是否附带initial_values
+     * @return 分页结果
+     */
+    @GetMapping("/page")
+    public CompletableFuture<ResponseEntity<SchemaPage>> getSchemaPage(
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) String sort,
+            @RequestParam(defaultValue = "true") boolean includeInitialValues) {
+        return io.run(() -> {
+            SchemaSort order = SchemaSort.fromParam(sort);
+            return ResponseEntity.ok(schemaService.getSchemaPage(offset, cursor, limit, order, includeInitialValues));
+        });
+    }
+
+    /**
+     * 获取Schema摘要列表（列表页使用，不含schema树与initial_values）
+     * @param sort 排序：id、-id、modified、-modified
+     * @return 摘要列表
+     */
+    @GetMapping("/summaries")
+    public CompletableFuture<ResponseEntity<List<SchemaSummary>>> getSchemaSummaries(
+            @RequestParam(required = false) String sort) {
+        return io.run(() -> ResponseEntity.ok(schemaService.getSchemaSummaries(SchemaSort.fromParam(sort))));
+    }
+
+    /**
+     * 按字段检索Schema，例如 GET /schema/search?component=Select&amp;field=asset
+     * 只查内存索引，不读取文件，因此直接在请求线程上执行；条件之间为“且”，整词匹配且忽略大小写。
+     * @param component x-component 类型
+     * @param field 字段key
+     * @param title 表单或字段标题
+     * @param enumValue 枚举选项的值或标签（参数名 enum）
+     * @param limit 最多返回的id数
+     * @return {ids, total}；未提供任何条件时返回400
+     */
+    @GetMapping("/search")
+    public ResponseEntity<SchemaSearchResult> searchSchemas(
+            @RequestParam(required = false) String component,
+            @RequestParam(required = false) String field,
+            @RequestParam(required = false) String title,
+            @RequestParam(name = "enum", required = false) String enumValue,
+            @RequestParam(defaultValue = "100") int limit) {
         try {
-            List<Schema> schemas = schemaService.getAllSchemas();
-            return ResponseEntity.ok(schemas);
-        } catch (IOException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            SchemaQuery query = new SchemaQuery(component, field, title, enumValue);
+            return ResponseEntity.ok(schemaService.searchSchemas(query, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         }
     }
 
     /**
      * 根据ID获取Schema
+     * 支持条件请求：If-None-Match / If-Modified-Since 命中时返回304，不读取文件内容
      * @param id Schema ID
      * @return Schema对象
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Schema> getSchemaById(@PathVariable String id) {
-        try {
-            Schema schema = schemaService.getSchemaById(id);
-            if (schema == null) {
-                return ResponseEntity.notFound().build();
-            }
-            return ResponseEntity.ok(schema);
-        } catch (IOException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
+    public CompletableFuture<ResponseEntity<Schema>> getSchemaById(@PathVariable String id,
+                                                                   @RequestHeader HttpHeaders headers) {
+        return io.run(() -> getSchemaConditionally(id, headers));
     }
 
     /**
      * 保存Schema（与前端设计方案一致：POST /api/schema，body: {id?, value}）
      * - id为空：创建并返回生成的id
      * - id不为空：存在则更新，不存在则按指定id创建
+     * - seed：可选，缺失的初始值按该种子生成，相同Schema与种子得到相同的值
      */
     @PostMapping
-    public ResponseEntity<Schema> createSchema(@RequestBody Schema schema) {
-        try {
+    public CompletableFuture<ResponseEntity<Schema>> createSchema(@RequestBody Schema schema,
+                                                                  @RequestParam(required = false) Long seed) {
+        return io.write(() -> {
             boolean isCreate = schema.getId() == null || schema.getId().trim().isEmpty();
-            Schema saved = schemaService.saveSchema(schema);
+            Schema saved = schemaService.saveSchema(schema, seed);
             return ResponseEntity.status(isCreate ? HttpStatus.CREATED : HttpStatus.OK).body(saved);
-        } catch (IOException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        });
+    }
+
+    /**
+     * 局部更新Schema，只传输修改的部分
+     * Content-Type 为 application/json-patch+json（RFC 6902）或 application/merge-patch+json（RFC 7386）；
+     * application/json 时按补丁形状判断：数组为JSON Patch，其余为Merge Patch。路径相对于Schema的value。
+     * 可带 If-Match 做乐观并发控制，版本不符返回412；test 操作失败返回409；补丁无效返回400。
+     * @return 新版本（同时放在 ETag / Last-Modified 响应头中）
+     */
+    @PatchMapping(value = "/{id}", consumes = {JSON_PATCH_VALUE, MERGE_PATCH_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public CompletableFuture<ResponseEntity<SchemaVersion>> patchSchema(@PathVariable String id,
+                                                                       @RequestBody JsonNode patch,
+                                                                       @RequestHeader HttpHeaders headers) {
+        PatchFormat format = patchFormat(headers.getContentType(), patch);
+        List<String> expected = ETags.expectedTags(headers.getIfMatch());
+        return io.write(() -> patched(() -> schemaService.patchSchema(id, patch, format, expected)));
+    }
+
+    /**
+     * 局部更新Schema数据（initial_values），补丁格式与条件请求同 PATCH /schema/{id}，路径相对于数据文档
+     * @return Schema的新版本
+     */
+    @PatchMapping(value = "/{id}/data", consumes = {JSON_PATCH_VALUE, MERGE_PATCH_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public CompletableFuture<ResponseEntity<SchemaVersion>> patchSchemaData(@PathVariable String id,
+                                                                           @RequestBody JsonNode patch,
+                                                                           @RequestHeader HttpHeaders headers) {
+        PatchFormat format = patchFormat(headers.getContentType(), patch);
+        List<String> expected = ETags.expectedTags(headers.getIfMatch());
+        return io.write(() -> patched(() -> schemaService.patchSchemaData(id, patch, format, expected)));
+    }
+
+    @FunctionalInterface
+    private interface PatchCall {
+        SchemaVersion apply() throws IOException;
+    }
+
+    private static ResponseEntity<SchemaVersion> patched(PatchCall call) throws IOException {
+        SchemaVersion version;
+        try {
+            version = call.apply();
+        } catch (PatchConflictException e) {
+            return ResponseEntity.status(e.isVersionMismatch() ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT)
+                    .build();
+        }
+        if (version == null) {
+            return ResponseEntity.notFound().build();
         }
+        return ResponseEntity.ok()
+                .eTag(ETags.quote(version.tag()))
+                .lastModified(version.lastModified())
+                .body(version);
+    }
+
+    private static PatchFormat patchFormat(MediaType contentType, JsonNode patch) {
+        if (contentType != null && contentType.isCompatibleWith(JSON_PATCH)) {
+            return PatchFormat.JSON_PATCH;
+        }
+        if (contentType != null && contentType.isCompatibleWith(MERGE_PATCH)) {
+            return PatchFormat.MERGE_PATCH;
+        }
+        return patch != null && patch.isArray() ? PatchFormat.JSON_PATCH : PatchFormat.MERGE_PATCH;
     }
 
     /**
      * 删除Schema（前端使用 DELETE /api/schema，body: {id}）
      */
     @DeleteMapping(value = "/delete")
-    public ResponseEntity<Void> deleteSchema(@RequestBody Map<String, String> body) {
+    public CompletableFuture<ResponseEntity<Void>> deleteSchema(@RequestBody Map<String, String> body) {
         String id = body.get("id");
         if (id == null || id.trim().isEmpty()) {
-            return ResponseEntity.badRequest().build();
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
         }
-        boolean deleted = schemaService.deleteSchema(id.trim());
-        return deleted ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+        return io.write(() -> schemaService.deleteSchema(id.trim())
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build());
+    }
+
+    /**
+     * 批量获取Schema：body为id数组，返回与请求顺序一致的逐条结果
+     */
+    @PostMapping("/batch/get")
+    public CompletableFuture<ResponseEntity<List<BatchItemResult>>> getSchemas(@RequestBody List<String> ids) {
+        return io.run(() -> ResponseEntity.ok(schemaService.getSchemas(ids)));
+    }
+
+    /**
+     * 批量保存Schema：body为Schema数组，每条的语义与 POST /schema 相同
+     */
+    @PostMapping("/batch/save")
+    public CompletableFuture<ResponseEntity<List<BatchItemResult>>> saveSchemas(@RequestBody List<Schema> schemas) {
+        return io.write(() -> ResponseEntity.ok(schemaService.saveSchemas(schemas)));
+    }
+
+    /**
+     * 批量删除Schema：body为id数组
+     */
+    @DeleteMapping("/batch/delete")
+    public CompletableFuture<ResponseEntity<List<BatchItemResult>>> deleteSchemas(@RequestBody List<String> ids) {
+        return io.write(() -> ResponseEntity.ok(schemaService.deleteSchemas(ids)));
+    }
+
+    /**
+     * Schema/数据/预览缓存统计：命中、未命中、淘汰次数及当前占用
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<Map<String, BoundedCache.Stats>> getCacheStats() {
+        Map<String, BoundedCache.Stats> stats = new LinkedHashMap<>(schemaService.getCacheStats());
+        stats.put("preview", previewCache.stats());
+        return ResponseEntity.ok(stats);
+    }
+
+    /**
+     * 在线迁移存储目录布局（平铺 ⇄ 分片）与存储编码，迁移期间读写不受影响
+     * @return {"migrated": 迁移数量}
+     */
+    @PostMapping({"/admin/migrate-layout", "/admin/reencode"})
+    public CompletableFuture<ResponseEntity<Map<String, Integer>>> migrateLayout() {
+        return io.write(() -> ResponseEntity.ok(Map.of("migrated", schemaService.migrateStorageLayout())));
+    }
+
+    /**
+     * 批量迁移历史格式文件并记录存储格式版本，此后读取跳过兼容探测
+     * @return {"migrated": 改写数量}
+     */
+    @PostMapping("/admin/migrate-legacy")
+    public CompletableFuture<ResponseEntity<Map<String, Integer>>> migrateLegacy() {
+        return io.write(() -> ResponseEntity.ok(Map.of("migrated", schemaService.migrateLegacyFormat())));
     }
 
     /**
@@ -91,14 +345,49 @@ public class SchemaController {
      * 前端：POST /api/schema/preview, body: { value: ... }
      */
     @PostMapping("/preview")
-    public ResponseEntity<Map<String, String>> previewSchema(@RequestBody Map<String, JsonNode> body) {
+    public ResponseEntity<Map<String, String>> previewSchema(
+            @RequestBody Map<String, JsonNode> body,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         JsonNode value = body == null ? null : body.get("value");
         if (value == null || value.isNull()) {
             return ResponseEntity.badRequest().build();
         }
+        // Identical content hashes the same whatever its whitespace, so a re-posted form is answered without rendering.
+        String hash = previewCache.hash(value);
+        String etag = ETags.quote(hash);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build();
+        }
         Map<String, String> resp = new HashMap<>();
-        resp.put("html", SchemaPreviewRenderer.render(value));
-        return ResponseEntity.ok(resp);
+        resp.put("html", previewCache.render(hash, value));
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(resp);
+    }
+
+    /**
+     * 预览Schema的HTML版本：请求头 Accept: text/html 时直接把HTML流式写入响应，不再包装为JSON
+     */
+    @PostMapping(value = "/preview", produces = MediaType.TEXT_HTML_VALUE)
+    public void previewSchemaHtml(
+            @RequestBody Map<String, JsonNode> body,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            HttpServletResponse response) throws IOException {
+        JsonNode value = body == null ? null : body.get("value");
+        if (value == null || value.isNull()) {
+            response.sendError(HttpStatus.BAD_REQUEST.value());
+            return;
+        }
+        String hash = previewCache.hash(value);
+        // Distinct tag per representation: the JSON and HTML bodies differ for the same content.
+        String etag = ETags.quote(hash + "-html");
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, REVALIDATE.getHeaderValue());
+        if (ETags.matches(ifNoneMatch, etag)) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
+        }
+        response.setContentType(MediaType.TEXT_HTML_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        previewCache.render(hash, value, response.getWriter());
     }
 
     /**
@@ -106,12 +395,115 @@ public class SchemaController {
      * 以便前端点击“案例”按钮时能展示该schema对应的数据。
      */
     @GetMapping("/{id}/case")
-    public ResponseEntity<Schema> getSchemaCase(@PathVariable String id) {
-        try {
+    public CompletableFuture<ResponseEntity<Schema>> getSchemaCase(@PathVariable String id,
+                                                                   @RequestHeader HttpHeaders headers) {
+        return io.run(() -> getSchemaConditionally(id, headers));
+    }
+
+    /**
+     * 按Schema批量生成示例数据，以NDJSON流式返回，每行一条初始值记录
+     * @param count 记录条数
+     * @param seed 可选随机种子；与ordered=true一起使用时输出可复现
+     * @param ordered 是否按生成顺序输出；为false时吞吐更高，但行的顺序不固定
+     */
+    @GetMapping(value = "/{id}/samples", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> getSamples(
+            @PathVariable String id,
+            @RequestParam(defaultValue = "1") long count,
+            @RequestParam(required = false) Long seed,
+            @RequestParam(defaultValue = "true") boolean ordered) {
+        if (count < 0 || count > SchemaService.MAX_SAMPLES) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+        return io.run(() -> {
             Schema schema = schemaService.getSchemaById(id);
-            return schema == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(schema);
-        } catch (IOException e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            if (schema == null) {
+                return ResponseEntity.notFound().build();
+            }
+            StreamingResponseBody body = out -> schemaService.writeSamples(schema, count, seed, ordered, out);
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+        });
+    }
+
+    /**
+     * 提交表单数据：body为一条记录（JSON对象）或记录数组，追加写入该Schema的提交日志
+     * @return 201 与 {first, count}；Schema不存在返回404，记录为空、过多或不是对象返回400
+     */
+    @PostMapping("/{id}/submissions")
+    public CompletableFuture<ResponseEntity<SubmissionReceipt>> submit(@PathVariable String id,
+                                                                      @RequestBody JsonNode body) {
+        List<JsonNode> data = new ArrayList<>();
+        if (body.isArray()) {
+            body.forEach(data::add);
+        } else {
+            data.add(body);
+        }
+        return io.write(() -> {
+            SubmissionReceipt receipt = submissionService.submit(id, data);
+            return receipt == null
+                    ? ResponseEntity.notFound().build()
+                    : ResponseEntity.status(HttpStatus.CREATED).body(receipt);
+        });
+    }
+
+    /**
+     * 按序号分页读取提交记录，用返回的 next 作为下一页的 from
+     * @param from 起始序号（含）
+     * @param limit 每页条数，最大 {@link SubmissionService#MAX_PAGE_SIZE}
+     */
+    @GetMapping("/{id}/submissions")
+    public CompletableFuture<ResponseEntity<SubmissionPage>> getSubmissions(
+            @PathVariable String id,
+            @RequestParam(defaultValue = "0") long from,
+            @RequestParam(defaultValue = "100") int limit) {
+        return io.run(() -> {
+            SubmissionPage page = submissionService.getSubmissions(id, from, limit);
+            return page == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(page);
+        });
+    }
+
+    /**
+     * 以NDJSON流式导出提交记录（Accept: application/x-ndjson），从序号from开始直到请求时的末尾，按存储格式原样输出
+     */
+    @GetMapping(value = "/{id}/submissions", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public CompletableFuture<ResponseEntity<StreamingResponseBody>> streamSubmissions(
+            @PathVariable String id,
+            @RequestParam(defaultValue = "0") long from) {
+        if (from < 0) {
+            return CompletableFuture.completedFuture(ResponseEntity.badRequest().build());
+        }
+        return io.run(() -> {
+            if (submissionService.countSubmissions(id) == null) {
+                return ResponseEntity.notFound().build();
+            }
+            StreamingResponseBody body = out -> submissionService.writeSubmissions(id, from, out);
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+        });
+    }
+
+    private ResponseEntity<Schema> getSchemaConditionally(String id, HttpHeaders headers) throws IOException {
+        SchemaVersion version = schemaService.getSchemaVersion(id);
+        if (version == null) {
+            return ResponseEntity.notFound().build();
+        }
+        String etag = ETags.quote(version.tag());
+        if (ETags.notModified(headers, etag, version.lastModified())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .lastModified(version.lastModified())
+                    .cacheControl(REVALIDATE)
+                    .build();
+        }
+        // Version is taken before the read: a concurrent write yields a newer body under an older tag,
+        // which only costs the client one extra full response.
+        Schema schema = schemaService.getSchemaById(id);
+        if (schema == null) {
+            return ResponseEntity.notFound().build();
         }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .lastModified(version.lastModified())
+                .cacheControl(REVALIDATE)
+                .body(schema);
     }
 }
@@ -0,0 +1,124 @@
+package com.formily.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.formily.config.PreviewProperties;
+import com.formily.service.BoundedCache;
+import com.formily.service.ContentHash;
+import com.formily.service.SchemaMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * 预览HTML缓存：以value的内容哈希（按文档顺序，保留数字写法）为键，命中时不再渲染
+ * 设计器每次输入都会请求预览，而内容通常与上一次相同，或与某个已保存的Schema相同。
+ */
+@Component
+class SchemaPreviewCache {
+
+    private final BoundedCache<String> cache;
+    private final long maxWeightBytes;
+    private final SchemaMetrics metrics;
+
+    SchemaPreviewCache(PreviewProperties properties) {
+        this(properties, SchemaMetrics.none());
+    }
+
+    @Autowired
+    SchemaPreviewCache(PreviewProperties properties, SchemaMetrics metrics) {
+        this.cache = new BoundedCache<>(properties.getCacheMaxEntries(), properties.getCacheMaxWeightBytes());
+        this.maxWeightBytes = properties.getCacheMaxWeightBytes();
+        this.metrics = metrics;
+    }
+
+    /**
+     * 预览内容的哈希，同时用作ETag
+     */
+    String hash(JsonNode value) {
+        return ContentHash.of(value);
+    }
+
+    String render(String hash, JsonNode value) {
+        String html = cache.get(hash);
+        if (html == null) {
+            long start = System.nanoTime();
+            html = SchemaPreviewRenderer.render(value);
+            metrics.rendered(System.nanoTime() - start);
+            cache.put(hash, html, weightOf(html));
+        }
+        return html;
+    }
+
+    /**
+     * 把预览HTML写入out：命中时直接写出缓存，未命中时边渲染边写出，同时留一份副本放入缓存
+     */
+    void render(String hash, JsonNode value, Writer out) throws IOException {
+        String html = cache.get(hash);
+        if (html != null) {
+            out.write(html);
+            return;
+        }
+        Tee tee = new Tee(out, maxWeightBytes / 2);
+        long start = System.nanoTime();
+        SchemaPreviewRenderer.render(value, tee);
+        // Includes time spent blocked on the response writer.
+        metrics.rendered(System.nanoTime() - start);
+        if (tee.copy != null) {
+            String rendered = tee.copy.toString();
+            cache.put(hash, rendered, weightOf(rendered));
+        }
+    }
+
+    BoundedCache.Stats stats() {
+        return cache.stats();
+    }
+
+    private static long weightOf(String html) {
+        return 2L * html.length();
+    }
+
+    /**
+     * 同时写往响应与内存副本；副本超过缓存上限后放弃复制，只继续写响应
+     */
+    private static final class Tee implements Appendable {
+        private final Writer out;
+        private final long maxChars;
+        private StringBuilder copy = new StringBuilder(4096);
+
+        Tee(Writer out, long maxChars) {
+            this.out = out;
+            this.maxChars = maxChars;
+        }
+
+        @Override
+        public Appendable append(CharSequence csq) throws IOException {
+            return append(csq, 0, csq.length());
+        }
+
+        @Override
+        public Appendable append(CharSequence csq, int start, int end) throws IOException {
+            out.append(csq, start, end);
+            if (copy != null) {
+                copy.append(csq, start, end);
+                if (copy.length() > maxChars) {
+                    copy = null;
+                }
+            }
+            return this;
+        }
+
+        @Override
+        public Appendable append(char c) throws IOException {
+            out.write(c);
+            if (copy != null) {
+                copy.append(c);
+                if (copy.length() > maxChars) {
+                    copy = null;
+                }
+            }
+            return this;
+        }
+    }
+}
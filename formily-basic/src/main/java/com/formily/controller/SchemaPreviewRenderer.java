@@ -2,148 +2,214 @@ package com.formily.controller;
 
 import com.fasterxml.jackson.databind.JsonNode;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.Map;
+
 /**
  * 极简的预览渲染器：把 value.schema 转成可展示的HTML（不依赖前端框架）。
  * 目标是满足“预览弹窗展示效果并回显数据”的最小实现。
+ * HTML直接写入 {@link Appendable}（例如响应的Writer），组件按 x-component 在注册表中查找渲染器。
  */
 final class SchemaPreviewRenderer {
     private SchemaPreviewRenderer() {}
 
+    private static final String STYLE = "<style>"
+            + ".formily-preview{font-family:Arial,Helvetica,sans-serif;position:relative;min-height:600px;}"
+            + ".fp-item{margin:12px 0;box-sizing:border-box;}"
+            + ".fp-label{display:inline-block;margin:0 8px 0 0;color:#333;font-weight:600;}"
+            + ".fp-card{border:1px solid #e5e7eb;border-radius:8px;padding:12px;background:#fff;}"
+            + ".fp-card-h{margin:0 0 12px;font-size:16px;}"
+            + ".fp-item input,.fp-item textarea,.fp-item select{box-sizing:border-box;width:100%;padding:6px 8px;border:1px solid #d1d5db;border-radius:6px;}"
+            + "</style>";
+
+    /**
+     * 单个组件的渲染器，负责输出该字段完整的HTML（包括外层容器）
+     */
+    @FunctionalInterface
+    interface ComponentRenderer {
+        void render(Field field, Appendable out) throws IOException;
+    }
+
+    /**
+     * 待渲染的字段
+     * @param key 字段名
+     * @param node 字段Schema
+     * @param title 标题（缺省为字段名）
+     * @param props x-component-props，可能为null
+     * @param value 回显值（缺省为空字符串）
+     * @param initialValues 整个表单的初始值，渲染子节点时使用
+     */
+    record Field(String key, JsonNode node, String title, JsonNode props, String value, JsonNode initialValues) {
+        String prop(String name, String defaultValue) {
+            return props != null && props.hasNonNull(name) ? props.get(name).asText() : defaultValue;
+        }
+    }
+
+    private static final Map<String, ComponentRenderer> COMPONENTS = Map.of(
+            "Card", SchemaPreviewRenderer::renderCard,
+            "Input", (field, out) -> renderInput(field, "text", true, out),
+            "NumberPicker", (field, out) -> renderInput(field, "number", false, out),
+            "Password", (field, out) -> renderInput(field, "password", true, out),
+            "Textarea", SchemaPreviewRenderer::renderTextarea,
+            "Select", SchemaPreviewRenderer::renderSelect
+    );
+
     static String render(JsonNode value) {
+        StringBuilder sb = new StringBuilder(4096);
+        try {
+            render(value, sb);
+        } catch (IOException e) {
+            // StringBuilder never throws.
+            throw new UncheckedIOException(e);
+        }
+        return sb.toString();
+    }
+
+    static void render(JsonNode value, Appendable out) throws IOException {
         JsonNode schema = value.hasNonNull("schema") ? value.get("schema") : value;
         JsonNode initialValues = value.hasNonNull("initial_values") ? value.get("initial_values") : null;
 
-        StringBuilder sb = new StringBuilder();
-        sb.append("<div class='formily-preview'>");
-        sb.append("<style>");
-        sb.append(".formily-preview{font-family:Arial,Helvetica,sans-serif;position:relative;min-height:600px;}");
-        sb.append(".fp-item{margin:12px 0;box-sizing:border-box;}");
-        sb.append(".fp-label{display:inline-block;margin:0 8px 0 0;color:#333;font-weight:600;}");
-        sb.append(".fp-card{border:1px solid #e5e7eb;border-radius:8px;padding:12px;background:#fff;}");
-        sb.append(".fp-card-h{margin:0 0 12px;font-size:16px;}");
-        sb.append(".fp-item input,.fp-item textarea,.fp-item select{box-sizing:border-box;width:100%;padding:6px 8px;border:1px solid #d1d5db;border-radius:6px;}");
-        sb.append("</style>");
-
-        sb.append(renderSchemaNode(schema, initialValues));
-        sb.append("</div>");
-        return sb.toString();
+        out.append("<div class='formily-preview'>").append(STYLE);
+        renderSchemaNode(schema, initialValues, out);
+        out.append("</div>");
     }
 
-    private static String renderSchemaNode(JsonNode node, JsonNode initialValues) {
-        if (node == null || node.isNull()) return "";
+    private static void renderSchemaNode(JsonNode node, JsonNode initialValues, Appendable out) throws IOException {
+        if (node == null || node.isNull()) return;
 
         // Root object schema
         if (node.has("properties") && node.get("properties").isObject()) {
-            StringBuilder sb = new StringBuilder();
-            node.get("properties").fields().forEachRemaining(entry -> {
-                String key = entry.getKey();
-                JsonNode child = entry.getValue();
-                sb.append(renderField(key, child, initialValues));
-            });
-            return sb.toString();
+            Iterator<Map.Entry<String, JsonNode>> fields = node.get("properties").fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> entry = fields.next();
+                renderField(entry.getKey(), entry.getValue(), initialValues, out);
+            }
+            return;
         }
 
         // Fallback: show JSON
-        return "<pre>" + escapeHtml(node.toString()) + "</pre>";
+        out.append("<pre>");
+        escapeHtml(node.toString(), out);
+        out.append("</pre>");
     }
 
-    private static String renderField(String fieldKey, JsonNode field, JsonNode initialValues) {
-        String title = field.hasNonNull("title") ? field.get("title").asText() : fieldKey;
-        String xComponent = field.hasNonNull("x-component") ? field.get("x-component").asText() : "";
-        JsonNode props = field.hasNonNull("x-component-props") ? field.get("x-component-props") : null;
-
-        final String value =
-                (initialValues != null && initialValues.has(fieldKey) && !initialValues.get(fieldKey).isNull())
-                        ? initialValues.get(fieldKey).asText("")
-                        : "";
+    private static void renderField(String fieldKey, JsonNode node, JsonNode initialValues, Appendable out) throws IOException {
+        String title = node.hasNonNull("title") ? node.get("title").asText() : fieldKey;
+        String xComponent = node.hasNonNull("x-component") ? node.get("x-component").asText() : "";
+        JsonNode props = node.hasNonNull("x-component-props") ? node.get("x-component-props") : null;
+        String value = initialValues != null && initialValues.has(fieldKey) && !initialValues.get(fieldKey).isNull()
+                ? initialValues.get(fieldKey).asText("")
+                : "";
+        Field field = new Field(fieldKey, node, title, props, value, initialValues);
+
+        ComponentRenderer renderer = COMPONENTS.get(xComponent);
+        if (renderer != null) {
+            renderer.render(field, out);
+            return;
+        }
+        // Not fully supported: show JSON for the node
+        openItem(field, out);
+        out.append("<pre>");
+        escapeHtml(node.toString(), out);
+        out.append("</pre></div>");
+    }
 
-        String styleAttr = styleAttr(field);
+    private static void renderCard(Field field, Appendable out) throws IOException {
+        out.append("<div class='fp-item fp-card'");
+        styleAttr(field.node(), out);
+        out.append("><div class='fp-card-h'>");
+        escapeHtml(field.prop("header", field.title()), out);
+        out.append("</div>");
+        renderSchemaNode(field.node(), field.initialValues(), out);
+        out.append("</div>");
+    }
 
-        // Card container (x-component: Card)
-        if ("Card".equals(xComponent)) {
-            String header = props != null && props.hasNonNull("header") ? props.get("header").asText() : title;
-            String children = renderSchemaNode(field, initialValues);
-            return "<div class='fp-item fp-card'" + styleAttr + "><div class='fp-card-h'>" + escapeHtml(header) + "</div>" + children + "</div>";
+    private static void renderInput(Field field, String type, boolean placeholder, Appendable out) throws IOException {
+        openItem(field, out);
+        out.append("<input type='").append(type).append("' name='");
+        escapeHtml(field.key(), out);
+        out.append("' value='");
+        escapeHtml(field.value(), out);
+        if (placeholder) {
+            out.append("' placeholder='");
+            escapeHtml(field.prop("placeholder", ""), out);
         }
+        out.append("' /></div>");
+    }
 
-        // Basic inputs
-        if ("Input".equals(xComponent)) {
-            String placeholder = props != null && props.hasNonNull("placeholder") ? props.get("placeholder").asText() : "";
-            return wrap(
-                    title,
-                    "<input type='text' name='" + escapeHtml(fieldKey) + "' value='" + escapeHtml(value) + "' placeholder='" + escapeHtml(placeholder) + "' />",
-                    styleAttr
-            );
-        }
-        if ("NumberPicker".equals(xComponent)) {
-            return wrap(title, "<input type='number' name='" + escapeHtml(fieldKey) + "' value='" + escapeHtml(value) + "' />", styleAttr);
-        }
-        if ("Password".equals(xComponent)) {
-            String placeholder = props != null && props.hasNonNull("placeholder") ? props.get("placeholder").asText() : "";
-            return wrap(
-                    title,
-                    "<input type='password' name='" + escapeHtml(fieldKey) + "' value='" + escapeHtml(value) + "' placeholder='" + escapeHtml(placeholder) + "' />",
-                    styleAttr
-            );
-        }
-        if ("Textarea".equals(xComponent)) {
-            String placeholder = props != null && props.hasNonNull("placeholder") ? props.get("placeholder").asText() : "";
-            return wrap(
-                    title,
-                    "<textarea name='" + escapeHtml(fieldKey) + "' placeholder='" + escapeHtml(placeholder) + "'>" + escapeHtml(value) + "</textarea>",
-                    styleAttr
-            );
-        }
-        if ("Select".equals(xComponent)) {
-            StringBuilder options = new StringBuilder();
-            if (field.has("enum") && field.get("enum").isArray()) {
-                field.get("enum").forEach(opt -> {
-                    String label = opt.hasNonNull("label") ? opt.get("label").asText() : opt.asText();
-                    String v = opt.hasNonNull("value") ? opt.get("value").asText() : opt.asText();
-                    boolean selected = v.equals(value);
-                    options.append("<option value='")
-                            .append(escapeHtml(v))
-                            .append("'")
-                            .append(selected ? " selected" : "")
-                            .append(">")
-                            .append(escapeHtml(label))
-                            .append("</option>");
-                });
+    private static void renderTextarea(Field field, Appendable out) throws IOException {
+        openItem(field, out);
+        out.append("<textarea name='");
+        escapeHtml(field.key(), out);
+        out.append("' placeholder='");
+        escapeHtml(field.prop("placeholder", ""), out);
+        out.append("'>");
+        escapeHtml(field.value(), out);
+        out.append("</textarea></div>");
+    }
+
+    private static void renderSelect(Field field, Appendable out) throws IOException {
+        openItem(field, out);
+        out.append("<select name='");
+        escapeHtml(field.key(), out);
+        out.append("'>");
+        JsonNode options = field.node().get("enum");
+        if (options != null && options.isArray()) {
+            for (JsonNode opt : options) {
+                String label = opt.hasNonNull("label") ? opt.get("label").asText() : opt.asText();
+                String v = opt.hasNonNull("value") ? opt.get("value").asText() : opt.asText();
+                out.append("<option value='");
+                escapeHtml(v, out);
+                out.append(v.equals(field.value()) ? "' selected>" : "'>");
+                escapeHtml(label, out);
+                out.append("</option>");
             }
-            return wrap(title, "<select name='" + escapeHtml(fieldKey) + "'>" + options + "</select>", styleAttr);
         }
-
-        // Not fully supported: show JSON for the node
-        return wrap(title, "<pre>" + escapeHtml(field.toString()) + "</pre>", styleAttr);
+        out.append("</select></div>");
     }
 
-    private static String wrap(String title, String html, String styleAttr) {
-        return "<div class='fp-item'" + styleAttr + "><label class='fp-label'>" + escapeHtml(title) + "</label>" + html + "</div>";
+    /**
+     * 输出表单项容器与标签，调用方负责输出控件和结尾的 {@code </div>}
+     */
+    private static void openItem(Field field, Appendable out) throws IOException {
+        out.append("<div class='fp-item'");
+        styleAttr(field.node(), out);
+        out.append("><label class='fp-label'>");
+        escapeHtml(field.title(), out);
+        out.append("</label>");
     }
 
-    private static String styleAttr(JsonNode field) {
-        if (field == null || field.isNull()) return "";
+    private static void styleAttr(JsonNode field, Appendable out) throws IOException {
+        if (field == null || field.isNull()) return;
         JsonNode props = field.hasNonNull("x-component-props") ? field.get("x-component-props") : null;
         JsonNode style = props != null && props.hasNonNull("style") ? props.get("style") : null;
-        if (style == null || !style.isObject()) return "";
+        if (style == null || !style.isObject()) return;
 
-        StringBuilder css = new StringBuilder();
-        style.fields().forEachRemaining(e -> {
-            String key = e.getKey();
+        boolean open = false;
+        Iterator<Map.Entry<String, JsonNode>> entries = style.fields();
+        while (entries.hasNext()) {
+            Map.Entry<String, JsonNode> e = entries.next();
             JsonNode v = e.getValue();
-            if (v == null || v.isNull()) return;
+            if (v == null || v.isNull()) continue;
             String val = v.isTextual() ? v.asText() : v.toString();
-            if (val == null || val.isEmpty()) return;
-            css.append(camelToKebab(key)).append(':').append(escapeHtmlAttr(val)).append(';');
-        });
-
-        if (css.length() == 0) return "";
-        return " style='" + css + "'";
+            if (val.isEmpty()) continue;
+            if (!open) {
+                out.append(" style='");
+                open = true;
+            }
+            camelToKebab(e.getKey(), out);
+            out.append(':');
+            escapeHtml(val, out);
+            out.append(';');
+        }
+        if (open) {
+            out.append('\'');
+        }
     }
 
-    private static String camelToKebab(String s) {
-        if (s == null || s.isEmpty()) return "";
-        StringBuilder out = new StringBuilder();
+    private static void camelToKebab(String s, Appendable out) throws IOException {
         for (int i = 0; i < s.length(); i++) {
             char c = s.charAt(i);
             if (Character.isUpperCase(c)) {
@@ -152,25 +218,28 @@ final class SchemaPreviewRenderer {
                 out.append(c);
             }
         }
-        return out.toString();
-    }
-
-    private static String escapeHtmlAttr(String s) {
-        if (s == null) return "";
-        return s.replace("&", "&amp;")
-                .replace("<", "&lt;")
-                .replace(">", "&gt;")
-                .replace("\"", "&quot;")
-                .replace("'", "&#39;");
     }
 
-    private static String escapeHtml(String s) {
-        if (s == null) return "";
-        return s.replace("&", "&amp;")
-                .replace("<", "&lt;")
-                .replace(">", "&gt;")
-                .replace("\"", "&quot;")
-                .replace("'", "&#39;");
+    /**
+     * 单次遍历转义：未转义的连续片段整段写出，只在遇到特殊字符时写实体
+     */
+    static void escapeHtml(CharSequence s, Appendable out) throws IOException {
+        if (s == null) return;
+        int start = 0;
+        for (int i = 0; i < s.length(); i++) {
+            String entity = switch (s.charAt(i)) {
+                case '&' -> "&amp;";
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                case '"' -> "&quot;";
+                case '\'' -> "&#39;";
+                default -> null;
+            };
+            if (entity != null) {
+                out.append(s, start, i).append(entity);
+                start = i + 1;
+            }
+        }
+        out.append(s, start, s.length());
     }
 }
-
@@ -0,0 +1,26 @@
+package com.formily.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * 批量操作中单个条目的结果，顺序与请求一致
+ * @param id Schema ID（新建时为生成的id）
+ * @param status 处理结果
+ * @param schema 读取或保存后的Schema，删除或失败时为null
+ * @param error 失败原因，成功时为null
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchItemResult(String id, Status status, Schema schema, String error) {
+
+    public enum Status {
+        OK, CREATED, NOT_FOUND, INVALID, ERROR
+    }
+
+    public static BatchItemResult of(String id, Status status, Schema schema) {
+        return new BatchItemResult(id, status, schema, null);
+    }
+
+    public static BatchItemResult failed(String id, Status status, String error) {
+        return new BatchItemResult(id, status, null, error);
+    }
+}
@@ -0,0 +1,12 @@
+package com.formily.model;
+
+import java.util.List;
+
+/**
+ * Schema分页结果
+ * @param items 当前页
+ * @param total Schema总数
+ * @param nextCursor 下一页游标，没有更多数据时为null
+ */
+public record SchemaPage(List<Schema> items, int total, String nextCursor) {
+}
@@ -0,0 +1,20 @@
+package com.formily.model;
+
+/**
+ * Schema检索条件，各条件之间为“且”关系，为空的条件不参与过滤
+ * 匹配为整词匹配，忽略大小写和首尾空白。
+ * @param component x-component 类型，例如 Select
+ * @param field 字段key（任意层级的properties）
+ * @param title 表单标题或字段标题
+ * @param enumValue 枚举选项的值或标签
+ */
+public record SchemaQuery(String component, String field, String title, String enumValue) {
+
+    public boolean isEmpty() {
+        return isBlank(component) && isBlank(field) && isBlank(title) && isBlank(enumValue);
+    }
+
+    private static boolean isBlank(String s) {
+        return s == null || s.isBlank();
+    }
+}
@@ -0,0 +1,11 @@
+package com.formily.model;
+
+import java.util.List;
+
+/**
+ * Schema检索结果
+ * @param ids 命中的Schema ID，按id排序，最多返回请求的条数
+ * @param total 命中总数
+ */
+public record SchemaSearchResult(List<String> ids, int total) {
+}
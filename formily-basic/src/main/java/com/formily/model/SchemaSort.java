@@ -0,0 +1,74 @@
+package com.formily.model;
+
+import java.util.Comparator;
+
+/**
+ * Schema列表排序方式
+ * 请求参数取值：id、-id、modified、-modified（前缀“-”表示倒序）
+ */
+public enum SchemaSort {
+    ID_ASC("id"),
+    ID_DESC("-id"),
+    MODIFIED_ASC("modified"),
+    MODIFIED_DESC("-modified");
+
+    private final String param;
+
+    SchemaSort(String param) {
+        this.param = param;
+    }
+
+    public String param() {
+        return param;
+    }
+
+    public boolean byModified() {
+        return this == MODIFIED_ASC || this == MODIFIED_DESC;
+    }
+
+    /**
+     * 排序比较器；按修改时间排序时以id兜底，保证游标分页结果稳定
+     */
+    public Comparator<SchemaSort.Key> comparator() {
+        Comparator<Key> byId = Comparator.comparing(Key::id);
+        Comparator<Key> base = byModified() ? Comparator.comparingLong(Key::modified).thenComparing(byId) : byId;
+        return this == ID_DESC || this == MODIFIED_DESC ? base.reversed() : base;
+    }
+
+    public static SchemaSort fromParam(String param) {
+        if (param == null || param.isBlank()) {
+            return ID_ASC;
+        }
+        for (SchemaSort sort : values()) {
+            if (sort.param.equalsIgnoreCase(param.trim())) {
+                return sort;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported sort: " + param);
+    }
+
+    /**
+     * 排序键：id + 最后修改时间（毫秒）
+     */
+    public record Key(String id, long modified) {
+
+        public String toCursor(SchemaSort sort) {
+            return sort.byModified() ? modified + ":" + id : id;
+        }
+
+        public static Key fromCursor(String cursor, SchemaSort sort) {
+            if (!sort.byModified()) {
+                return new Key(cursor, 0L);
+            }
+            int sep = cursor.indexOf(':');
+            if (sep <= 0) {
+                throw new IllegalArgumentException("Malformed cursor: " + cursor);
+            }
+            try {
+                return new Key(cursor.substring(sep + 1), Long.parseLong(cursor.substring(0, sep)));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Malformed cursor: " + cursor, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.formily.model;
+
+/**
+ * Schema列表视图使用的轻量投影
+ * @param id Schema ID
+ * @param title 根Schema标题，没有时为null
+ * @param fieldCount 各层properties下的字段总数（含Card/Tabs等容器）
+ * @param lastModified 最后修改时间（毫秒）
+ */
+public record SchemaSummary(String id, String title, int fieldCount, long lastModified) {
+}
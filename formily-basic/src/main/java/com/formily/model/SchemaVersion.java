@@ -0,0 +1,9 @@
+package com.formily.model;
+
+/**
+ * Schema当前版本的轻量标识，由Schema文档与数据文档的修改时间和大小组成，不读取内容
+ * @param tag 版本标记（不含引号），内容变化时随之变化
+ * @param lastModified 两份文档中较晚的修改时间（毫秒）
+ */
+public record SchemaVersion(String tag, long lastModified) {
+}
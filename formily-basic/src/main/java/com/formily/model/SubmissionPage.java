@@ -0,0 +1,14 @@
+package com.formily.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.List;
+
+/**
+ * 表单提交记录分页结果
+ * @param items 当前页，每条为 {"seq":序号,"submittedAt":毫秒时间戳,"data":{...}}
+ * @param total 该Schema的提交总数
+ * @param next 下一页的起始序号，等于total时表示已读到末尾
+ */
+public record SubmissionPage(List<JsonNode> items, long total, long next) {
+}
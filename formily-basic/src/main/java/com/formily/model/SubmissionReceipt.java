@@ -0,0 +1,9 @@
+package com.formily.model;
+
+/**
+ * 提交结果
+ * @param first 第一条记录的序号，同一请求中的记录序号连续
+ * @param count 写入的记录数
+ */
+public record SubmissionReceipt(long first, int count) {
+}
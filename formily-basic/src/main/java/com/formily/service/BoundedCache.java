@@ -0,0 +1,104 @@
+package com.formily.service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 同时按条目数和权重（字节数）限制的LRU缓存
+ * 每次失效都会推进generation，读路径据此丢弃在失效之前读到的旧值。
+ */
+public class BoundedCache<V> {
+
+    private final int maxEntries;
+    private final long maxWeight;
+    private final LinkedHashMap<String, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long weight;
+    private long generation;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public BoundedCache(int maxEntries, long maxWeight) {
+        this.maxEntries = Math.max(0, maxEntries);
+        this.maxWeight = Math.max(0, maxWeight);
+    }
+
+    public synchronized V get(String key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.value;
+    }
+
+    /**
+     * 当前generation，读取磁盘前获取，写回缓存时传给 {@link #putIfUnchanged}
+     */
+    public synchronized long generation() {
+        return generation;
+    }
+
+    public void put(String key, V value, long weight) {
+        putIfUnchanged(key, value, weight, -1);
+    }
+
+    /**
+     * 仅当期间没有发生失效时才写入，避免把并发写入之前读到的旧值放回缓存。
+     * @param expectedGeneration 读取前的generation；传-1表示无条件写入
+     * @return 是否写入
+     */
+    public synchronized boolean putIfUnchanged(String key, V value, long weight, long expectedGeneration) {
+        if (expectedGeneration >= 0 && expectedGeneration != generation) {
+            return false;
+        }
+        // Entries heavier than the whole budget would just evict everything else.
+        if (weight > maxWeight || maxEntries == 0) {
+            return false;
+        }
+        Entry<V> previous = entries.put(key, new Entry<>(value, weight));
+        if (previous != null) {
+            this.weight -= previous.weight;
+        }
+        this.weight += weight;
+        evictIfNeeded();
+        return true;
+    }
+
+    public synchronized void invalidate(String key) {
+        generation++;
+        Entry<V> removed = entries.remove(key);
+        if (removed != null) {
+            weight -= removed.weight;
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+        weight = 0;
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(hits, misses, evictions, entries.size(), weight);
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<String, Entry<V>>> it = entries.entrySet().iterator();
+        while ((entries.size() > maxEntries || weight > maxWeight) && it.hasNext()) {
+            Entry<V> eldest = it.next().getValue();
+            it.remove();
+            weight -= eldest.weight;
+            evictions++;
+        }
+    }
+
+    private record Entry<V>(V value, long weight) {
+    }
+
+    public record Stats(long hits, long misses, long evictions, int size, long weightBytes) {
+    }
+}
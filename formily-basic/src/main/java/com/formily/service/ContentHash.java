@@ -0,0 +1,83 @@
+package com.formily.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * JSON内容哈希：按文档顺序遍历树计算SHA-256（取前128位）
+ * 与原始JSON的空白无关，但字段顺序和数字的写法（1 与 1.0）都计入哈希：
+ * 预览渲染与初始值生成的结果都依赖这两者，顺序或写法不同的树不能共用缓存结果。
+ */
+public final class ContentHash {
+    private ContentHash() {}
+
+    private static final int HASH_BYTES = 16;
+
+    /**
+     * 计算内容哈希
+     * @param node JSON树，null视为JSON null
+     * @return 32位十六进制字符串
+     */
+    public static String of(JsonNode node) {
+        MessageDigest digest = sha256();
+        update(digest, node);
+        return HexFormat.of().formatHex(digest.digest(), 0, HASH_BYTES);
+    }
+
+    private static void update(MessageDigest digest, JsonNode node) {
+        if (node == null || node.isNull() || node.isMissingNode()) {
+            digest.update((byte) 'z');
+        } else if (node.isObject()) {
+            digest.update((byte) 'o');
+            updateInt(digest, node.size());
+            for (Iterator<Map.Entry<String, JsonNode>> it = node.fields(); it.hasNext(); ) {
+                Map.Entry<String, JsonNode> field = it.next();
+                updateString(digest, field.getKey());
+                update(digest, field.getValue());
+            }
+        } else if (node.isArray()) {
+            digest.update((byte) 'a');
+            updateInt(digest, node.size());
+            for (JsonNode element : node) {
+                update(digest, element);
+            }
+        } else if (node.isNumber()) {
+            digest.update((byte) 'n');
+            // The text as it will be written back: 1 and 1.0 render (and generate) differently.
+            updateString(digest, node.asText());
+        } else if (node.isBoolean()) {
+            digest.update((byte) (node.booleanValue() ? 't' : 'f'));
+        } else {
+            digest.update((byte) 's');
+            updateString(digest, node.asText());
+        }
+    }
+
+    private static void updateString(MessageDigest digest, String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        // Length prefix keeps ["ab","c"] and ["a","bc"] apart.
+        updateInt(digest, bytes.length);
+        digest.update(bytes);
+    }
+
+    private static void updateInt(MessageDigest digest, int v) {
+        digest.update((byte) (v >>> 24));
+        digest.update((byte) (v >>> 16));
+        digest.update((byte) (v >>> 8));
+        digest.update((byte) v);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is required by every Java platform", e);
+        }
+    }
+}
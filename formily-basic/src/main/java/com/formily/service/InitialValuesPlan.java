@@ -0,0 +1,186 @@
+package com.formily.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.BooleanNode;
+import com.fasterxml.jackson.databind.node.DoubleNode;
+import com.fasterxml.jackson.databind.node.IntNode;
+import com.fasterxml.jackson.databind.node.LongNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 初始值生成计划：把Schema树预先编译成扁平的字段生成步骤
+ * x-component、type、enum 在编译时解析一次，生成时按原树的先序顺序逐步执行，不再遍历JSON树。
+ * 计划不可变，可被多个线程共享。
+ */
+final class InitialValuesPlan {
+
+    private static final String ALPHA_NUM = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
+    private static final long DAY_MILLIS = 24 * 60 * 60 * 1000L;
+
+    private final Step[] steps;
+
+    private InitialValuesPlan(Step[] steps) {
+        this.steps = steps;
+    }
+
+    /**
+     * 编译Schema
+     * @param schemaNode Schema根节点（含 properties）
+     */
+    static InitialValuesPlan compile(JsonNode schemaNode) {
+        List<Step> steps = new ArrayList<>();
+        if (schemaNode != null && !schemaNode.isNull()) {
+            compileProperties(schemaNode, steps);
+        }
+        return new InitialValuesPlan(steps.toArray(new Step[0]));
+    }
+
+    /**
+     * 填充缺失或为空白字符串的字段，保留已有的非空值
+     */
+    void populate(ObjectNode out, RandomSource random) {
+        for (Step step : steps) {
+            if (shouldFill(out.get(step.key()))) {
+                out.set(step.key(), step.generate(random));
+            }
+        }
+    }
+
+    int size() {
+        return steps.length;
+    }
+
+    private static boolean shouldFill(JsonNode current) {
+        if (current == null || current.isNull()) return true;
+        if (current.isTextual()) return current.asText().trim().isEmpty();
+        return false;
+    }
+
+    private static void compileProperties(JsonNode node, List<Step> steps) {
+        // Formily schema commonly uses { properties: { ... } } as the container.
+        if (node.has("properties") && node.get("properties").isObject()) {
+            node.get("properties").fields()
+                    .forEachRemaining(e -> compileField(e.getKey(), e.getValue(), steps));
+        }
+    }
+
+    private static void compileField(String key, JsonNode field, List<Step> steps) {
+        if (field == null || field.isNull()) return;
+
+        String xComponent = field.hasNonNull("x-component") ? field.get("x-component").asText() : "";
+
+        // Container nodes (Card/Tabs/...) usually carry child properties.
+        if (field.has("properties") && field.get("properties").isObject()) {
+            // Tabs often needs a current value (active pane).
+            if ("Tabs".equals(xComponent)) {
+                steps.add(new Tabs(key, paneNames(field)));
+            }
+            compileProperties(field, steps);
+            return;
+        }
+
+        JsonNode enumNode = field.get("enum");
+        if (enumNode != null && enumNode.isArray() && enumNode.size() > 0) {
+            JsonNode[] values = new JsonNode[enumNode.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = enumValue(enumNode.get(i));
+            }
+            steps.add(new Pick(key, values));
+            return;
+        }
+
+        String type = field.hasNonNull("type") ? field.get("type").asText() : "";
+        if ("boolean".equals(type) || "Switch".equals(xComponent)) {
+            steps.add(new Flag(key));
+        } else if ("number".equals(type) || "integer".equals(type) || "NumberPicker".equals(xComponent)) {
+            steps.add(new Number(key));
+        } else if ("DateTimePicker".equals(xComponent)) {
+            steps.add(new Date(key));
+        } else {
+            // Default: string-ish value.
+            steps.add(new Text(key, key + "_"));
+        }
+    }
+
+    private static JsonNode enumValue(JsonNode picked) {
+        JsonNode v = picked;
+        if (picked.isObject() && picked.hasNonNull("value")) {
+            v = picked.get("value");
+        }
+        if (v.isBoolean()) return BooleanNode.valueOf(v.asBoolean());
+        if (v.isInt() || v.isLong()) return LongNode.valueOf(v.asLong());
+        if (v.isNumber()) return DoubleNode.valueOf(v.asDouble());
+        return TextNode.valueOf(v.asText());
+    }
+
+    private static String[] paneNames(JsonNode field) {
+        JsonNode props = field.hasNonNull("x-component-props") ? field.get("x-component-props") : null;
+        JsonNode panes = props != null ? props.get("panes") : null;
+        if (panes == null || !panes.isArray()) {
+            return new String[0];
+        }
+        String[] names = new String[panes.size()];
+        for (int i = 0; i < names.length; i++) {
+            JsonNode pane = panes.get(i);
+            names[i] = pane.isObject() && pane.hasNonNull("name") ? pane.get("name").asText() : "";
+        }
+        return names;
+    }
+
+    /**
+     * 单个字段的生成步骤
+     */
+    private interface Step {
+        String key();
+
+        JsonNode generate(RandomSource random);
+    }
+
+    private record Tabs(String key, String[] panes) implements Step {
+        public JsonNode generate(RandomSource random) {
+            return TextNode.valueOf(panes.length == 0 ? "" : panes[random.nextInt(panes.length)]);
+        }
+    }
+
+    private record Pick(String key, JsonNode[] values) implements Step {
+        public JsonNode generate(RandomSource random) {
+            // Value nodes are immutable, so the compiled instances can be shared between outputs.
+            return values[random.nextInt(values.length)];
+        }
+    }
+
+    private record Flag(String key) implements Step {
+        public JsonNode generate(RandomSource random) {
+            return BooleanNode.valueOf(random.nextBoolean());
+        }
+    }
+
+    private record Number(String key) implements Step {
+        public JsonNode generate(RandomSource random) {
+            return IntNode.valueOf(1 + random.nextInt(100));
+        }
+    }
+
+    private record Date(String key) implements Step {
+        public JsonNode generate(RandomSource random) {
+            // ISO-8601 string is the safest default.
+            long delta = random.nextInt(30) * DAY_MILLIS;
+            return TextNode.valueOf(Instant.ofEpochMilli(random.currentTimeMillis() + delta).toString());
+        }
+    }
+
+    private record Text(String key, String prefix) implements Step {
+        public JsonNode generate(RandomSource random) {
+            char[] suffix = new char[6];
+            for (int i = 0; i < suffix.length; i++) {
+                suffix[i] = ALPHA_NUM.charAt(random.nextInt(ALPHA_NUM.length()));
+            }
+            return TextNode.valueOf(prefix + new String(suffix));
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.formily.service;
+
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * JSON Patch（RFC 6902）与 JSON Merge Patch（RFC 7386）
+ * 直接修改传入的目标树并返回新的根节点（根被整体替换时与传入的不同），调用方需传入自己持有的副本。
+ * 补丁格式错误或路径不存在抛出 IllegalArgumentException；test 操作不满足时抛出 {@link PatchConflictException}。
+ * 任一操作失败时目标树可能已被部分修改，调用方应丢弃它。
+ */
+final class JsonPatches {
+    private JsonPatches() {}
+
+    // RFC 6902 §4.6: numbers compare by value, so 1 and 1.0 are equal.
+    private static final Comparator<JsonNode> NUMERIC_AWARE = (a, b) -> {
+        if (a.isNumber() && b.isNumber()) {
+            return a.decimalValue().compareTo(b.decimalValue());
+        }
+        return a.equals(b) ? 0 : 1;
+    };
+
+    static JsonNode apply(JsonNode target, JsonNode patch) {
+        if (patch == null || !patch.isArray()) {
+            throw new IllegalArgumentException("JSON Patch must be an array of operations");
+        }
+        JsonNode root = target;
+        for (JsonNode operation : patch) {
+            root = applyOperation(root, operation);
+        }
+        return root;
+    }
+
+    static JsonNode merge(JsonNode target, JsonNode patch) {
+        if (patch == null || !patch.isObject()) {
+            return patch;
+        }
+        ObjectNode result = target != null && target.isObject()
+                ? (ObjectNode) target : JsonNodeFactory.instance.objectNode();
+        Iterator<Map.Entry<String, JsonNode>> fields = patch.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            if (field.getValue().isNull()) {
+                result.remove(field.getKey());
+            } else {
+                result.set(field.getKey(), merge(result.get(field.getKey()), field.getValue()));
+            }
+        }
+        return result;
+    }
+
+    private static JsonNode applyOperation(JsonNode root, JsonNode operation) {
+        if (operation == null || !operation.isObject()) {
+            throw new IllegalArgumentException("JSON Patch operation must be an object");
+        }
+        String op = requiredText(operation, "op");
+        JsonPointer path = pointer(requiredText(operation, "path"));
+        switch (op) {
+            case "add":
+                return add(root, path, requiredValue(operation));
+            case "remove":
+                remove(root, path);
+                return root;
+            case "replace":
+                return replace(root, path, requiredValue(operation));
+            case "move": {
+                JsonPointer from = pointer(requiredText(operation, "from"));
+                if (path.toString().startsWith(from + "/")) {
+                    throw new IllegalArgumentException("cannot move " + from + " into its own child " + path);
+                }
+                JsonNode value = get(root, from);
+                if (from.matches()) {
+                    // Only reachable when path is the root too.
+                    return value;
+                }
+                remove(root, from);
+                return add(root, path, value);
+            }
+            case "copy":
+                return add(root, path, get(root, pointer(requiredText(operation, "from"))).deepCopy());
+            case "test":
+                if (!get(root, path).equals(NUMERIC_AWARE, requiredValue(operation))) {
+                    throw new PatchConflictException("test failed at " + path, false);
+                }
+                return root;
+            default:
+                throw new IllegalArgumentException("unknown JSON Patch operation: " + op);
+        }
+    }
+
+    private static JsonNode add(JsonNode root, JsonPointer path, JsonNode value) {
+        if (path.matches()) {
+            return value;
+        }
+        JsonNode parent = get(root, path.head());
+        String token = path.last().getMatchingProperty();
+        if (parent.isObject()) {
+            ((ObjectNode) parent).set(token, value);
+        } else if (parent.isArray()) {
+            ArrayNode array = (ArrayNode) parent;
+            array.insert("-".equals(token) ? array.size() : index(token, array.size(), path), value);
+        } else {
+            throw new IllegalArgumentException("parent of " + path + " is not a container");
+        }
+        return root;
+    }
+
+    private static JsonNode replace(JsonNode root, JsonPointer path, JsonNode value) {
+        get(root, path);
+        if (path.matches()) {
+            return value;
+        }
+        // Overwrite in place rather than remove+add, so the key keeps its position in the object.
+        JsonNode parent = root.at(path.head());
+        String token = path.last().getMatchingProperty();
+        if (parent.isObject()) {
+            ((ObjectNode) parent).set(token, value);
+        } else {
+            ((ArrayNode) parent).set(index(token, parent.size() - 1, path), value);
+        }
+        return root;
+    }
+
+    private static void remove(JsonNode root, JsonPointer path) {
+        if (path.matches()) {
+            throw new IllegalArgumentException("cannot remove the document root");
+        }
+        JsonNode parent = get(root, path.head());
+        String token = path.last().getMatchingProperty();
+        if (parent.isObject() && parent.has(token)) {
+            ((ObjectNode) parent).remove(token);
+        } else if (parent.isArray()) {
+            ((ArrayNode) parent).remove(index(token, parent.size() - 1, path));
+        } else {
+            throw new IllegalArgumentException("path does not exist: " + path);
+        }
+    }
+
+    private static JsonNode get(JsonNode root, JsonPointer path) {
+        JsonNode node = root == null ? null : root.at(path);
+        if (node == null || node.isMissingNode()) {
+            throw new IllegalArgumentException("path does not exist: " + path);
+        }
+        return node;
+    }
+
+    /**
+     * 数组下标：十进制且无前导零，0 ~ max
+     */
+    private static int index(String token, int max, JsonPointer path) {
+        if (token.isEmpty() || token.length() > 9 || (token.length() > 1 && token.charAt(0) == '0')
+                || !token.chars().allMatch(Character::isDigit)) {
+            throw new IllegalArgumentException("invalid array index in " + path);
+        }
+        int i = Integer.parseInt(token);
+        if (i > max) {
+            throw new IllegalArgumentException("array index out of bounds in " + path);
+        }
+        return i;
+    }
+
+    private static JsonPointer pointer(String path) {
+        // JsonPointer.compile throws IllegalArgumentException on malformed input, which maps to 400 as well.
+        return JsonPointer.compile(path);
+    }
+
+    private static String requiredText(JsonNode operation, String name) {
+        JsonNode node = operation.get(name);
+        if (node == null || !node.isTextual()) {
+            throw new IllegalArgumentException("JSON Patch operation is missing \"" + name + "\"");
+        }
+        return node.asText();
+    }
+
+    private static JsonNode requiredValue(JsonNode operation) {
+        JsonNode value = operation.get("value");
+        if (value == null) {
+            throw new IllegalArgumentException("JSON Patch operation is missing \"value\"");
+        }
+        // Detached from the request tree so two operations never share one mutable node.
+        return value.deepCopy();
+    }
+}
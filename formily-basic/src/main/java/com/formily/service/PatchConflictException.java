@@ -0,0 +1,23 @@
+package com.formily.service;
+
+/**
+ * 补丁无法应用于当前版本：JSON Patch 的 test 操作不满足，或 If-Match 指定的版本已不是当前版本
+ */
+public class PatchConflictException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final boolean versionMismatch;
+
+    public PatchConflictException(String message, boolean versionMismatch) {
+        super(message);
+        this.versionMismatch = versionMismatch;
+    }
+
+    /**
+     * @return true表示版本前置条件不满足（对应412），false表示补丁自身的test失败（对应409）
+     */
+    public boolean isVersionMismatch() {
+        return versionMismatch;
+    }
+}
@@ -0,0 +1,17 @@
+package com.formily.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * 局部更新的补丁格式
+ */
+public enum PatchFormat {
+    /** RFC 6902，application/json-patch+json：操作数组 */
+    JSON_PATCH,
+    /** RFC 7386，application/merge-patch+json：与目标合并的对象，null表示删除 */
+    MERGE_PATCH;
+
+    JsonNode apply(JsonNode target, JsonNode patch) {
+        return this == JSON_PATCH ? JsonPatches.apply(target, patch) : JsonPatches.merge(target, patch);
+    }
+}
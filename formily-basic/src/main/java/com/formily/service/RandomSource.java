@@ -0,0 +1,75 @@
+package com.formily.service;
+
+import java.time.Instant;
+import java.util.SplittableRandom;
+
+/**
+ * 初始值生成使用的随机数源
+ * 默认实现为每线程一个 {@link SplittableRandom}，无锁、无跨线程争用；
+ * 指定种子时同一Schema总是生成相同的示例值。
+ */
+public interface RandomSource {
+
+    /** Dates generated by seeded sources are anchored here instead of the wall clock. */
+    long SEEDED_EPOCH_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+
+    /**
+     * @param bound 上界（不含），必须为正数
+     */
+    int nextInt(int bound);
+
+    boolean nextBoolean();
+
+    /**
+     * 生成日期时使用的当前时间（毫秒）
+     */
+    default long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * 每线程独立的 {@link SplittableRandom}，可在多个请求线程间共享
+     */
+    static RandomSource threadLocal() {
+        SplittableRandom root = new SplittableRandom();
+        ThreadLocal<SplittableRandom> perThread = ThreadLocal.withInitial(() -> {
+            synchronized (root) {
+                return root.split();
+            }
+        });
+        return new RandomSource() {
+            @Override
+            public int nextInt(int bound) {
+                return perThread.get().nextInt(bound);
+            }
+
+            @Override
+            public boolean nextBoolean() {
+                return perThread.get().nextBoolean();
+            }
+        };
+    }
+
+    /**
+     * 固定种子的随机数源，日期以 {@link #SEEDED_EPOCH_MILLIS} 为基准；非线程安全，每次生成单独创建
+     */
+    static RandomSource seeded(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        return new RandomSource() {
+            @Override
+            public int nextInt(int bound) {
+                return random.nextInt(bound);
+            }
+
+            @Override
+            public boolean nextBoolean() {
+                return random.nextBoolean();
+            }
+
+            @Override
+            public long currentTimeMillis() {
+                return SEEDED_EPOCH_MILLIS;
+            }
+        };
+    }
+}
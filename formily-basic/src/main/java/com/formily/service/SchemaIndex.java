@@ -0,0 +1,227 @@
+package com.formily.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.formily.model.SchemaQuery;
+import com.formily.model.SchemaSearchResult;
+import com.formily.store.SchemaStore;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Schema字段级倒排索引：x-component、字段key、标题、枚举值 → Schema ID
+ * 每个id记录其当前的词项集合，更新时只增删差异部分；同一id的更新由调用方串行化（SchemaService的写锁），
+ * 不同id可以并发更新，查询无锁。只索引Schema文档，initial_values 不参与。
+ */
+final class SchemaIndex {
+
+    private enum Kind { COMPONENT, FIELD, TITLE, ENUM }
+
+    private record Term(Kind kind, String value) {
+    }
+
+    /**
+     * @param version 建立索引时存储条目的元信息，用于识别已经索引过的变更通知
+     */
+    private record Entry(Set<Term> terms, SchemaStore.EntryInfo version) {
+    }
+
+    private final Map<Term, Set<String>> postings = new ConcurrentHashMap<>();
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * 以Schema的最新内容替换该id的索引项
+     * @param value Schema的value；为null时等同于 {@link #remove}
+     * @param version 写入后的存储元信息，未知时为null
+     */
+    void update(String id, JsonNode value, SchemaStore.EntryInfo version) {
+        if (value == null) {
+            remove(id);
+            return;
+        }
+        Set<Term> terms = termsOf(value);
+        Entry previous = entries.put(id, new Entry(terms, version));
+        Set<Term> old = previous == null ? Set.of() : previous.terms();
+        for (Term term : old) {
+            if (!terms.contains(term)) {
+                unlink(term, id);
+            }
+        }
+        for (Term term : terms) {
+            if (!old.contains(term)) {
+                link(term, id);
+            }
+        }
+    }
+
+    void remove(String id) {
+        Entry previous = entries.remove(id);
+        if (previous != null) {
+            previous.terms().forEach(term -> unlink(term, id));
+        }
+    }
+
+    /**
+     * 该id是否已按给定版本索引；存储的变更通知也会覆盖本进程自己的写入，命中时无需重新读取
+     */
+    boolean isCurrent(String id, SchemaStore.EntryInfo version) {
+        Entry entry = entries.get(id);
+        if (entry == null || entry.version() == null || version == null) {
+            return entry == null && version == null;
+        }
+        return entry.version().lastModified() == version.lastModified() && entry.version().size() == version.size();
+    }
+
+    /**
+     * 保留ids中的条目，移除其余条目；用于整体重建后清理已不存在的Schema
+     */
+    void retainAll(Set<String> ids) {
+        for (String id : List.copyOf(entries.keySet())) {
+            if (!ids.contains(id)) {
+                remove(id);
+            }
+        }
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    SchemaSearchResult search(SchemaQuery query, int limit) {
+        List<Set<String>> lists = new ArrayList<>(4);
+        for (Term term : termsOf(query)) {
+            Set<String> ids = postings.get(term);
+            if (ids == null) {
+                return new SchemaSearchResult(List.of(), 0);
+            }
+            lists.add(ids);
+        }
+        // Drive the intersection from the rarest term; the others are only probed.
+        lists.sort(Comparator.comparingInt(Set::size));
+        // Keep only the first limit ids in a max-heap: broad terms match most of the store, and sorting
+        // every match would dominate the lookup.
+        PriorityQueue<String> top = new PriorityQueue<>(limit + 1, Comparator.reverseOrder());
+        int total = 0;
+        for (String id : lists.get(0)) {
+            if (!containedInAll(lists, id)) {
+                continue;
+            }
+            total++;
+            if (top.size() < limit) {
+                top.offer(id);
+            } else if (id.compareTo(top.peek()) < 0) {
+                top.poll();
+                top.offer(id);
+            }
+        }
+        String[] ids = top.toArray(new String[0]);
+        Arrays.sort(ids);
+        return new SchemaSearchResult(List.of(ids), total);
+    }
+
+    private static boolean containedInAll(List<Set<String>> lists, String id) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(id)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void link(Term term, String id) {
+        // compute/computeIfPresent keep add and empty-set removal atomic per term, so an id is never
+        // added to a set that is concurrently being dropped from the map.
+        postings.compute(term, (t, ids) -> {
+            Set<String> set = ids != null ? ids : ConcurrentHashMap.newKeySet();
+            set.add(id);
+            return set;
+        });
+    }
+
+    private void unlink(Term term, String id) {
+        postings.computeIfPresent(term, (t, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private static List<Term> termsOf(SchemaQuery query) {
+        List<Term> terms = new ArrayList<>(4);
+        addTerm(terms, Kind.COMPONENT, query.component());
+        addTerm(terms, Kind.FIELD, query.field());
+        addTerm(terms, Kind.TITLE, query.title());
+        addTerm(terms, Kind.ENUM, query.enumValue());
+        return terms;
+    }
+
+    private static Set<Term> termsOf(JsonNode value) {
+        Set<Term> terms = new HashSet<>();
+        if (!value.isObject()) {
+            return terms;
+        }
+        JsonNode schema = value.hasNonNull("schema") && value.get("schema").isObject() ? value.get("schema") : value;
+        // Same rule as the summaries: value.title only counts when the schema carries none.
+        JsonNode title = schema.hasNonNull("title") ? schema.get("title") : value.get("title");
+        if (title != null && title.isTextual()) {
+            addTerm(terms, Kind.TITLE, title.asText());
+        }
+        collectProperties(schema, terms);
+        return terms;
+    }
+
+    private static void collectProperties(JsonNode node, Set<Term> terms) {
+        JsonNode properties = node.get("properties");
+        if (properties != null && properties.isObject()) {
+            properties.fields().forEachRemaining(e -> collectField(e.getKey(), e.getValue(), terms));
+        }
+        // Array fields describe their rows under items (an object, or a tuple of objects).
+        JsonNode items = node.get("items");
+        if (items != null && items.isObject()) {
+            collectProperties(items, terms);
+        } else if (items != null && items.isArray()) {
+            items.forEach(item -> collectProperties(item, terms));
+        }
+    }
+
+    private static void collectField(String key, JsonNode field, Set<Term> terms) {
+        addTerm(terms, Kind.FIELD, key);
+        if (field == null || !field.isObject()) {
+            return;
+        }
+        addText(terms, Kind.COMPONENT, field.get("x-component"));
+        addText(terms, Kind.TITLE, field.get("title"));
+        JsonNode options = field.get("enum");
+        if (options != null && options.isArray()) {
+            for (JsonNode option : options) {
+                if (option.isObject()) {
+                    addText(terms, Kind.ENUM, option.get("value"));
+                    addText(terms, Kind.ENUM, option.get("label"));
+                } else {
+                    addText(terms, Kind.ENUM, option);
+                }
+            }
+        }
+        collectProperties(field, terms);
+    }
+
+    private static void addText(Set<Term> terms, Kind kind, JsonNode node) {
+        if (node != null && node.isValueNode() && !node.isNull()) {
+            addTerm(terms, kind, node.asText());
+        }
+    }
+
+    private static void addTerm(Collection<Term> terms, Kind kind, String text) {
+        if (text != null && !text.isBlank()) {
+            terms.add(new Term(kind, text.trim().toLowerCase(Locale.ROOT)));
+        }
+    }
+}
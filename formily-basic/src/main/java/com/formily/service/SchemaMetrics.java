@@ -0,0 +1,162 @@
+package com.formily.service;
+
+import com.formily.store.StoreMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Schema相关的监控指标
+ * <ul>
+ *   <li>formily.schema.operation：SchemaService操作（Observation，配置了tracing时同时产生span），按 operation、error 区分</li>
+ *   <li>formily.schema.phase：各阶段耗时，按 phase（read/parse/write/generate/render）与 kind（schema/data/-）区分</li>
+ *   <li>formily.store.bytes：读写的文档字节数，按 direction 与 kind 区分</li>
+ *   <li>formily.schema.list.size：列表类操作返回的条数</li>
+ *   <li>formily.schema.errors：失败次数，按 operation 与异常类型区分</li>
+ * </ul>
+ */
+@Component
+public class SchemaMetrics implements StoreMetrics {
+
+    static final String OPERATION = "formily.schema.operation";
+    static final String PHASE = "formily.schema.phase";
+    static final String BYTES = "formily.store.bytes";
+    static final String LIST_SIZE = "formily.schema.list.size";
+    static final String ERRORS = "formily.schema.errors";
+
+    private static final String NO_KIND = "-";
+
+    private final MeterRegistry registry;
+    private final ObservationRegistry observations;
+    // Hot-path meters are resolved once; the registry lookup would allocate tags on every call.
+    private final Map<String, Timer> readTimers;
+    private final Map<String, Timer> parseTimers;
+    private final Map<String, Timer> writeTimers;
+    private final Map<String, DistributionSummary> readBytes;
+    private final Map<String, DistributionSummary> writeBytes;
+    private final Timer generateTimer;
+    private final Timer renderTimer;
+
+    @Autowired
+    public SchemaMetrics(MeterRegistry registry, ObjectProvider<ObservationRegistry> observations) {
+        this(registry, observations.getIfAvailable(() -> ObservationRegistry.NOOP));
+    }
+
+    public SchemaMetrics(MeterRegistry registry, ObservationRegistry observations) {
+        this.registry = registry;
+        this.observations = observations;
+        this.readTimers = perKind(kind -> phaseTimer("read", kind));
+        this.parseTimers = perKind(kind -> phaseTimer("parse", kind));
+        this.writeTimers = perKind(kind -> phaseTimer("write", kind));
+        this.readBytes = perKind(kind -> bytes("read", kind));
+        this.writeBytes = perKind(kind -> bytes("write", kind));
+        this.generateTimer = phaseTimer("generate", NO_KIND);
+        this.renderTimer = phaseTimer("render", NO_KIND);
+    }
+
+    /**
+     * 不向任何监控系统上报（单元测试、手工构造的SchemaService）
+     */
+    public static SchemaMetrics none() {
+        return new SchemaMetrics(new CompositeMeterRegistry(), ObservationRegistry.NOOP);
+    }
+
+    @FunctionalInterface
+    public interface Operation<T> {
+        T call() throws IOException;
+    }
+
+    /**
+     * 以Observation包裹一次操作；失败时同时计入 formily.schema.errors
+     * @param operation 操作名，作为低基数标签
+     */
+    public <T> T observe(String operation, Operation<T> call) throws IOException {
+        Observation observation = Observation.start(OPERATION, observations)
+                .lowCardinalityKeyValue("operation", operation);
+        Observation.Scope scope = observation.openScope();
+        try {
+            return call.call();
+        } catch (IOException | RuntimeException e) {
+            observation.error(e);
+            error(operation, e);
+            throw e;
+        } finally {
+            scope.close();
+            observation.stop();
+        }
+    }
+
+    /**
+     * 记录一次在别处已处理（例如记录日志后吞掉）的失败
+     */
+    public void error(String operation, Throwable e) {
+        Counter.builder(ERRORS)
+                .tag("operation", operation)
+                .tag("exception", e.getClass().getSimpleName())
+                .register(registry)
+                .increment();
+    }
+
+    public void listed(String operation, int size) {
+        DistributionSummary.builder(LIST_SIZE)
+                .tag("operation", operation)
+                .register(registry)
+                .record(size);
+    }
+
+    public void generated(long nanos) {
+        generateTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void rendered(long nanos) {
+        renderTimer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void read(String kind, long nanos, long bytes) {
+        readTimers.get(kind).record(nanos, TimeUnit.NANOSECONDS);
+        readBytes.get(kind).record(bytes);
+    }
+
+    @Override
+    public void parse(String kind, long nanos) {
+        parseTimers.get(kind).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void write(String kind, long nanos, long bytes) {
+        writeTimers.get(kind).record(nanos, TimeUnit.NANOSECONDS);
+        writeBytes.get(kind).record(bytes);
+    }
+
+    private Timer phaseTimer(String phase, String kind) {
+        return Timer.builder(PHASE)
+                .tag("phase", phase)
+                .tag("kind", kind)
+                .register(registry);
+    }
+
+    private DistributionSummary bytes(String direction, String kind) {
+        return DistributionSummary.builder(BYTES)
+                .baseUnit("bytes")
+                .tag("direction", direction)
+                .tag("kind", kind)
+                .register(registry);
+    }
+
+    private static <M> Map<String, M> perKind(Function<String, M> factory) {
+        return Map.of(SCHEMA, factory.apply(SCHEMA), DATA, factory.apply(DATA));
+    }
+}
@@ -1,46 +1,362 @@
 package com.formily.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.formily.config.StorageProperties;
+import com.formily.model.BatchItemResult;
 import com.formily.model.Schema;
+import com.formily.model.SchemaPage;
+import com.formily.model.SchemaQuery;
+import com.formily.model.SchemaSearchResult;
+import com.formily.model.SchemaSort;
+import com.formily.model.SchemaSummary;
+import com.formily.model.SchemaVersion;
+import com.formily.store.FileSchemaStore;
+import com.formily.store.LogSchemaStore;
+import com.formily.store.SchemaStore;
+import com.formily.store.StorageEngine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.io.File;
-import java.io.FileWriter;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.security.SecureRandom;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
 
 /**
  * Schema服务类
- * 实现Schema的CRUD操作，使用文件系统存储Schema
+ * 实现Schema的CRUD操作，底层存储由SchemaStore实现（文件或日志结构存储）
  */
 @Service
 public class SchemaService {
 
+    private static final Logger log = LoggerFactory.getLogger(SchemaService.class);
+    public static final int MAX_PAGE_SIZE = 200;
+    // Deeper pages are reached with the cursor; an offset costs a heap slot per skipped entry.
+    public static final int MAX_OFFSET = 100_000;
+    public static final long MAX_SAMPLES = 10_000_000;
+    // Records generated and serialized per task when streaming samples.
+    private static final int SAMPLE_CHUNK = 1024;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
-    private final Random random = new SecureRandom();
-    private final String schemaDir;
-    private final String dataDir;
+    private final RandomSource random;
+    private final SchemaMetrics metrics;
+    private final SchemaStore store;
+    // Parsed trees as stored; callers always get a deep copy.
+    private final BoundedCache<Schema> schemaCache;
+    private final BoundedCache<JsonNode> dataCache;
+    // Compiled initial-value generators keyed by schema content hash.
+    private final BoundedCache<InitialValuesPlan> planCache;
+    // Component/field/title/enum terms of every stored schema; kept current by writes and the watcher.
+    private final SchemaIndex index = new SchemaIndex();
+    // Serializes schema+data writes per id; reads stay lock-free.
+    private final StripedLocks locks;
+    private final boolean migrateLegacyOnStartup;
+    // Shared by batch requests and bulk migrations; bounds how much file I/O runs at once.
+    private final ExecutorService ioExecutor;
+    private final int batchMaxItems;
+    // Once the store is known to hold only the current format, reads skip the legacy probes.
+    private volatile boolean legacyFree;
+    // Told about every deleted id, under that id's write lock.
+    private final List<DeleteListener> deleteListeners = new CopyOnWriteArrayList<>();
 
     public SchemaService() {
-        this.schemaDir = resolveResourceDir("schema");
-        this.dataDir = resolveResourceDir("data");
-        // Ensure directories exist (we're persisting to filesystem, not classpath).
+        this(new StorageProperties());
+    }
+
+    public SchemaService(StorageProperties properties) {
+        this(properties, SchemaMetrics.none());
+    }
+
+    @Autowired
+    public SchemaService(StorageProperties properties, SchemaMetrics metrics) {
+        this(properties, createStore(properties, new ObjectMapper()), RandomSource.threadLocal(), metrics);
+    }
+
+    public SchemaService(StorageProperties properties, SchemaStore store) {
+        this(properties, store, RandomSource.threadLocal());
+    }
+
+    public SchemaService(StorageProperties properties, SchemaStore store, RandomSource random) {
+        this(properties, store, random, SchemaMetrics.none());
+    }
+
+    public SchemaService(StorageProperties properties, SchemaStore store, RandomSource random, SchemaMetrics metrics) {
+        this.random = random;
+        this.metrics = metrics;
+        store.setMetrics(metrics);
+        this.locks = new StripedLocks(properties.getLockStripes());
+        StorageProperties.WriteBehind writeBehind = properties.getWriteBehind();
+        this.store = writeBehind.isEnabled()
+                ? new WriteBehindStore(store, locks, writeBehind.getFlushIntervalMillis(), metrics)
+                : store;
+        this.migrateLegacyOnStartup = properties.isMigrateLegacyOnStartup();
+        this.ioExecutor = newIoExecutor(properties.getBatch().getParallelism());
+        this.batchMaxItems = properties.getBatch().getMaxItems();
+        try {
+            this.legacyFree = store.formatVersion() >= SchemaStore.FORMAT_VERSION;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read storage format version", e);
+        }
+        StorageProperties.Cache cacheConfig = properties.getCache();
+        int maxEntries = cacheConfig.isEnabled() ? cacheConfig.getMaxEntries() : 0;
+        this.schemaCache = new BoundedCache<>(maxEntries, cacheConfig.getMaxWeightBytes());
+        this.dataCache = new BoundedCache<>(maxEntries, cacheConfig.getMaxWeightBytes());
+        this.planCache = new BoundedCache<>(cacheConfig.isEnabled() ? cacheConfig.getPlanMaxEntries() : 0,
+                Long.MAX_VALUE);
+        if (cacheConfig.isWatchEnabled()) {
+            watchStore();
+        }
+        rebuildIndex();
+    }
+
+    private static SchemaStore createStore(StorageProperties properties, ObjectMapper objectMapper) {
         try {
-            Files.createDirectories(Paths.get(schemaDir));
-            Files.createDirectories(Paths.get(dataDir));
+            if (properties.getEngine() == StorageEngine.LOG) {
+                StorageProperties.Log logConfig = properties.getLog();
+                return new LogSchemaStore(Paths.get(resolveResourceDir("store")),
+                        properties.getFsync(), properties.getFsyncIntervalMillis(),
+                        logConfig.getSegmentMaxBytes(), logConfig.getCompactionIntervalMillis(),
+                        logConfig.getCompactionMinDeadRatio(), properties.getEncoding(), objectMapper);
+            }
+            return new FileSchemaStore(Paths.get(resolveResourceDir("schema")), Paths.get(resolveResourceDir("data")),
+                    properties.getLayout(), properties.getEncoding(), properties.getFsync(),
+                    properties.getFsyncIntervalMillis(), objectMapper);
         } catch (IOException e) {
             throw new RuntimeException("Failed to create storage directory", e);
         }
     }
 
-    private static String resolveResourceDir(String subdir) {
+    private void watchStore() {
+        try {
+            store.watch(new SchemaStore.ChangeListener() {
+                @Override
+                public void schemaChanged(String id) {
+                    invalidate(schemaCache, id);
+                    if (id == null) {
+                        rebuildIndex();
+                    } else {
+                        reindex(id, true);
+                    }
+                }
+
+                @Override
+                public void dataChanged(String id) {
+                    invalidate(dataCache, id);
+                }
+            });
+        } catch (IOException e) {
+            // Explicit saves/deletes still invalidate; only out-of-band edits go unnoticed.
+            log.warn("Storage watch unavailable, out-of-band edits will not evict cached schemas or reach the search index", e);
+        }
+    }
+
+    private static void invalidate(BoundedCache<?> cache, String id) {
+        if (id == null) {
+            cache.invalidateAll();
+        } else {
+            cache.invalidate(id);
+        }
+    }
+
+    /**
+     * 从存储整体重建检索索引；单个Schema读取失败时跳过该条目
+     */
+    private void rebuildIndex() {
+        long start = System.nanoTime();
+        Set<String> ids = new HashSet<>();
+        try {
+            store.scan(entry -> {
+                ids.add(entry.id());
+                reindex(entry.id(), false);
+            });
+        } catch (IOException e) {
+            // Keep whatever was indexed; saves and deletes still maintain it.
+            log.warn("Failed to scan storage, search index may be incomplete", e);
+            return;
+        }
+        index.retainAll(ids);
+        log.info("Indexed {} schema(s) for search in {} ms", index.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private void reindex(String id, boolean skipIfCurrent) {
+        // Under the write lock, so a concurrent save cannot be overtaken by this older read.
+        ReentrantLock lock = locks.forId(id);
+        lock.lock();
+        try {
+            SchemaStore.EntryInfo version = store.stat(id);
+            if (skipIfCurrent && index.isCurrent(id, version)) {
+                return;
+            }
+            Schema schema = version == null ? null : store.get(id);
+            index.update(id, schema == null ? null : schema.getValue(), version);
+        } catch (IOException e) {
+            log.warn("Failed to index schema {}", id, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PostConstruct
+    void migrateLegacyIfConfigured() throws IOException {
+        if (migrateLegacyOnStartup && !legacyFree) {
+            migrateLegacyFormat();
+        }
+    }
+
+    private static ExecutorService newIoExecutor(int parallelism) {
+        int threads = Math.max(1, parallelism);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+                    Thread t = new Thread(r, "formily-io");
+                    t.setDaemon(true);
+                    return t;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        ioExecutor.shutdownNow();
+        store.close();
+    }
+
+    /**
+     * 在线迁移文件存储：把仍处于旧布局（平铺/分片）或旧编码的文件逐个移动/重新编码到当前配置
+     * 每个id在其写锁内处理，迁移期间读写照常进行；日志结构存储按记录头识别编码，无需迁移，直接返回0。
+     * @return 迁移的Schema数量
+     * @throws IOException IO异常
+     */
+    public int migrateStorageLayout() throws IOException {
+        if (!(diskStore() instanceof FileSchemaStore fileStore)) {
+            return 0;
+        }
+        int migrated = 0;
+        for (String id : fileStore.misplacedIds()) {
+            ReentrantLock lock = locks.forId(id);
+            lock.lock();
+            try {
+                if (fileStore.relocate(id)) {
+                    migrated++;
+                }
+            } finally {
+                schemaCache.invalidate(id);
+                dataCache.invalidate(id);
+                lock.unlock();
+            }
+        }
+        log.info("Migrated {} schema(s) to the configured storage layout and encoding", migrated);
+        return migrated;
+    }
+
+    /**
+     * 批量迁移历史格式：把只包含value的Schema文件改写为 {id, value} 格式，内嵌的initial_values移入数据文档
+     * 按id并行处理，每个id在其写锁内迁移；全部成功后记录存储格式版本，此后读取跳过兼容探测。
+     * @return 改写的Schema数量
+     * @throws IOException IO异常
+     */
+    public int migrateLegacyFormat() throws IOException {
+        if (!(diskStore() instanceof FileSchemaStore fileStore)) {
+            return 0;
+        }
+        List<String> ids = new ArrayList<>();
+        store.scan(entry -> ids.add(entry.id()));
+        List<Future<Boolean>> results = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            results.add(ioExecutor.submit(() -> upgradeLegacy(fileStore, id)));
+        }
+        int migrated = 0;
+        try {
+            for (Future<Boolean> result : results) {
+                if (result.get()) {
+                    migrated++;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            results.forEach(result -> result.cancel(true));
+            throw new IOException("Legacy migration interrupted", e);
+        } catch (ExecutionException e) {
+            results.forEach(result -> result.cancel(true));
+            throw e.getCause() instanceof IOException io ? io : new IOException("Legacy migration failed", e.getCause());
+        }
+        fileStore.markFormatVersion(SchemaStore.FORMAT_VERSION);
+        legacyFree = true;
+        log.info("Rewrote {} legacy schema file(s), storage marked as format version {}",
+                migrated, SchemaStore.FORMAT_VERSION);
+        return migrated;
+    }
+
+    private boolean upgradeLegacy(FileSchemaStore fileStore, String id) throws IOException {
+        ReentrantLock lock = locks.forId(id);
+        lock.lock();
+        try {
+            Schema legacy = fileStore.readLegacy(id);
+            if (legacy == null) {
+                return false;
+            }
+            JsonNode initialValues = legacy.getValue() == null ? null : legacy.getValue().get("initial_values");
+            // Data first: a crash in between leaves a legacy file that the next run picks up again.
+            if (initialValues != null && !initialValues.isNull() && store.statData(id) == null) {
+                store.putData(id, initialValues);
+            }
+            fileStore.upgrade(legacy);
+            return true;
+        } finally {
+            schemaCache.invalidate(id);
+            dataCache.invalidate(id);
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 缓存命中/未命中/淘汰统计
+     * @return 以 schema、data、plan 为键的统计信息
+     */
+    public Map<String, BoundedCache.Stats> getCacheStats() {
+        Map<String, BoundedCache.Stats> stats = new LinkedHashMap<>();
+        stats.put("schema", schemaCache.stats());
+        stats.put("data", dataCache.stats());
+        stats.put("plan", planCache.stats());
+        return stats;
+    }
+
+    /**
+     * 实际读写磁盘的存储；开启延迟写入时为被包装的存储
+     */
+    private SchemaStore diskStore() {
+        return store instanceof WriteBehindStore writeBehind ? writeBehind.delegate() : store;
+    }
+
+    static String resolveResourceDir(String subdir) {
         // Default to module-local path; fall back to repo-root layout when running from workspace root.
         Path cwd = Paths.get(System.getProperty("user.dir"));
         Path moduleLocal = cwd.resolve("src/main/resources").resolve(subdir);
@@ -55,16 +371,142 @@ public class SchemaService {
      * @throws IOException IO异常
      */
     public List<Schema> getAllSchemas() throws IOException {
-        List<Schema> schemas = new ArrayList<>();
-        File[] files = new File(schemaDir).listFiles((dir, name) -> name.endsWith(".json"));
-        if (files != null) {
-            for (File file : files) {
-                Schema schema = readSchemaFromFile(file);
-                attachInitialValuesFromData(schema);
-                schemas.add(schema);
+        return metrics.observe("list", () -> {
+            List<Schema> schemas = new ArrayList<>();
+            forEachSchema(schemas::add);
+            metrics.listed("list", schemas.size());
+            return schemas;
+        });
+    }
+
+    /**
+     * 逐个读取所有Schema（含initial_values）并交给visitor，不在内存中累积
+     * 用于流式输出：内存占用与Schema数量无关。遍历期间被删除的Schema会被跳过。
+     * @param visitor 每个Schema调用一次
+     * @throws IOException IO异常（包括visitor抛出的异常，例如客户端断开）
+     */
+    public void forEachSchema(SchemaVisitor visitor) throws IOException {
+        store.scan(entry -> {
+            Schema schema = loadSchema(entry.id(), true);
+            if (schema != null) {
+                visitor.visit(schema);
+            }
+        });
+    }
+
+    @FunctionalInterface
+    public interface SchemaVisitor {
+        void visit(Schema schema) throws IOException;
+    }
+
+    /**
+     * 分页获取Schema
+     * 只遍历存储元信息（id、修改时间），仅解析当前页对应的Schema。
+     * @param offset 跳过条数，0 ~ {@link #MAX_OFFSET}；与cursor同时提供时在游标之后再跳过
+     * @param cursor 上一页返回的nextCursor，可为空
+     * @param limit 每页条数，1 ~ {@link #MAX_PAGE_SIZE}
+     * @param sort 排序方式
+     * @param includeInitialValues 是否附带initial_values（需要额外读取数据文件）
+     * @return 分页结果
+     * @throws IOException IO异常
+     */
+    public SchemaPage getSchemaPage(int offset, String cursor, int limit, SchemaSort sort,
+                                    boolean includeInitialValues) throws IOException {
+        return metrics.observe("page", () -> {
+            SchemaPage page = loadPage(offset, cursor, limit, sort, includeInitialValues);
+            metrics.listed("page", page.items().size());
+            return page;
+        });
+    }
+
+    private SchemaPage loadPage(int offset, String cursor, int limit, SchemaSort sort,
+                                boolean includeInitialValues) throws IOException {
+        if (offset < 0 || offset > MAX_OFFSET) {
+            throw new IllegalArgumentException(
+                    "offset must be between 0 and " + MAX_OFFSET + "; use the cursor to page further");
+        }
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        Comparator<SchemaSort.Key> order = sort.comparator();
+        SchemaSort.Key after = cursor == null || cursor.isBlank() ? null : SchemaSort.Key.fromCursor(cursor.trim(), sort);
+
+        // Keep only the first offset+limit keys (plus one to detect a next page) in a max-heap,
+        // so memory stays proportional to the page rather than the directory.
+        int window = offset + limit + 1;
+        // Not pre-sized: the heap grows with the entries actually seen, not with the requested offset.
+        PriorityQueue<SchemaSort.Key> heap = new PriorityQueue<>(order.reversed());
+        int[] total = {0};
+        store.scan(entry -> {
+            total[0]++;
+            SchemaSort.Key key = new SchemaSort.Key(entry.id(), sort.byModified() ? entry.lastModified() : 0L);
+            if (after != null && order.compare(key, after) <= 0) {
+                return;
             }
+            heap.offer(key);
+            if (heap.size() > window) {
+                heap.poll();
+            }
+        });
+
+        List<SchemaSort.Key> keys = new ArrayList<>(heap);
+        keys.sort(order);
+        int end = Math.min(keys.size(), offset + limit);
+        List<Schema> items = new ArrayList<>(Math.max(0, end - offset));
+        for (int i = offset; i < end; i++) {
+            Schema schema = loadSchema(keys.get(i).id(), includeInitialValues);
+            if (schema != null) {
+                items.add(schema);
+            }
+        }
+        String nextCursor = keys.size() > offset + limit ? keys.get(end - 1).toCursor(sort) : null;
+        return new SchemaPage(items, total[0], nextCursor);
+    }
+
+    /**
+     * 获取所有Schema的摘要（id、根标题、字段数、最后修改时间）
+     * 使用流式解析，不构建JsonNode树，也不读取数据文件。
+     * @param sort 排序方式
+     * @return 摘要列表
+     * @throws IOException IO异常
+     */
+    public List<SchemaSummary> getSchemaSummaries(SchemaSort sort) throws IOException {
+        return metrics.observe("summaries", () -> {
+            List<SchemaSummary> summaries = readSummaries(sort);
+            metrics.listed("summaries", summaries.size());
+            return summaries;
+        });
+    }
+
+    private List<SchemaSummary> readSummaries(SchemaSort sort) throws IOException {
+        List<SchemaSummary> summaries = new ArrayList<>();
+        store.scan(entry -> {
+            try (JsonParser parser = store.openSchema(entry.id())) {
+                if (parser != null) { // null when deleted while listing
+                    summaries.add(SchemaSummaryReader.read(parser, entry.id(), entry.lastModified()));
+                }
+            }
+        });
+        Comparator<SchemaSort.Key> order = sort.comparator();
+        summaries.sort((a, b) -> order.compare(
+                new SchemaSort.Key(a.id(), a.lastModified()), new SchemaSort.Key(b.id(), b.lastModified())));
+        return summaries;
+    }
+
+    /**
+     * 按组件类型、字段key、标题、枚举值检索Schema，只查内存索引，不读取存储
+     * @param query 检索条件，至少提供一项
+     * @param limit 最多返回的id数，1 ~ {@link #MAX_PAGE_SIZE}
+     * @return 按id排序的命中结果及命中总数
+     */
+    public SchemaSearchResult searchSchemas(SchemaQuery query, int limit) {
+        if (query == null || query.isEmpty()) {
+            throw new IllegalArgumentException("at least one of component, field, title or enum is required");
         }
-        return schemas;
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return index.search(query, limit);
     }
 
     /**
@@ -74,15 +516,166 @@ public class SchemaService {
      * @throws IOException IO异常
      */
     public Schema getSchemaById(String id) throws IOException {
-        File file = new File(schemaDir, id + ".json");
-        if (!file.exists()) {
+        return metrics.observe("get", () -> loadSchema(id, true));
+    }
+
+    /**
+     * 获取Schema的版本标识（用于条件请求），只读取元信息
+     * 标识由Schema与数据文档的修改时间和大小组成，同一毫秒内大小不变的两次写入无法区分。
+     * @param id Schema ID
+     * @return 版本标识，Schema不存在时返回null
+     * @throws IOException IO异常
+     */
+    public SchemaVersion getSchemaVersion(String id) throws IOException {
+        SchemaStore.EntryInfo schemaInfo = store.stat(id);
+        if (schemaInfo == null) {
             return null;
         }
-        Schema schema = readSchemaFromFile(file);
-        attachInitialValuesFromData(schema);
+        SchemaStore.EntryInfo dataInfo = store.statData(id);
+        long dataModified = dataInfo == null ? 0L : dataInfo.lastModified();
+        long dataSize = dataInfo == null ? -1L : dataInfo.size();
+        String tag = Long.toHexString(schemaInfo.lastModified()) + "-" + Long.toHexString(schemaInfo.size())
+                + "-" + Long.toHexString(dataModified) + "-" + Long.toHexString(dataSize);
+        return new SchemaVersion(tag, Math.max(schemaInfo.lastModified(), dataModified));
+    }
+
+    /**
+     * 注册删除回调，Schema删除成功后在该id的写锁内调用
+     */
+    void onDelete(DeleteListener listener) {
+        deleteListeners.add(listener);
+    }
+
+    @FunctionalInterface
+    interface DeleteListener {
+        void deleted(String id) throws IOException;
+    }
+
+    /**
+     * Schema是否存在，只读取元信息
+     */
+    boolean exists(String id) throws IOException {
+        return store.stat(id) != null;
+    }
+
+    private Schema loadSchema(String id, boolean withInitialValues) throws IOException {
+        Schema cached = schemaCache.get(id);
+        if (cached == null) {
+            long generation = schemaCache.generation();
+            cached = store.get(id);
+            if (cached == null) {
+                return null;
+            }
+            if (!legacyFree) {
+                ensureDataFileForBackwardCompat(cached);
+            }
+            schemaCache.putIfUnchanged(id, cached, weightOf(store.stat(id)), generation);
+        }
+        Schema schema = copyOf(cached);
+        if (withInitialValues) {
+            attachInitialValuesFromData(schema);
+        } else if (!legacyFree && schema.getValue() != null && schema.getValue().isObject()) {
+            // Legacy files may still embed initial_values; honour the caller's opt-out.
+            ((ObjectNode) schema.getValue()).remove("initial_values");
+        }
         return schema;
     }
 
+    /**
+     * 批量获取Schema（含initial_values），各条目在I/O线程池中并行读取
+     * @param ids Schema ID列表
+     * @return 与请求顺序一致的结果，不存在的id标记为 NOT_FOUND
+     * @throws IOException 等待结果时被中断
+     */
+    public List<BatchItemResult> getSchemas(List<String> ids) throws IOException {
+        return runBatch(ids, id -> id, id -> {
+            if (isBlank(id)) {
+                return BatchItemResult.failed(id, BatchItemResult.Status.INVALID, "id is required");
+            }
+            Schema schema = getSchemaById(id);
+            return schema == null
+                    ? BatchItemResult.of(id, BatchItemResult.Status.NOT_FOUND, null)
+                    : BatchItemResult.of(id, BatchItemResult.Status.OK, schema);
+        });
+    }
+
+    /**
+     * 批量保存Schema，语义与 {@link #saveSchema} 相同（无id新建，有id upsert）
+     * 同一批次中重复的id会各自保存，最终结果取决于执行顺序。
+     * @param schemas Schema列表
+     * @return 与请求顺序一致的结果，新建的条目标记为 CREATED
+     * @throws IOException 等待结果时被中断
+     */
+    public List<BatchItemResult> saveSchemas(List<Schema> schemas) throws IOException {
+        return runBatch(schemas, schema -> schema == null ? null : schema.getId(), schema -> {
+            if (schema == null) {
+                return BatchItemResult.failed(null, BatchItemResult.Status.INVALID, "schema is required");
+            }
+            boolean isCreate = isBlank(schema.getId());
+            Schema saved = saveSchema(schema);
+            return BatchItemResult.of(saved.getId(),
+                    isCreate ? BatchItemResult.Status.CREATED : BatchItemResult.Status.OK, saved);
+        });
+    }
+
+    /**
+     * 批量删除Schema及其数据
+     * @param ids Schema ID列表
+     * @return 与请求顺序一致的结果，不存在的id标记为 NOT_FOUND
+     * @throws IOException 等待结果时被中断
+     */
+    public List<BatchItemResult> deleteSchemas(List<String> ids) throws IOException {
+        return runBatch(ids, id -> id, id -> {
+            if (isBlank(id)) {
+                return BatchItemResult.failed(id, BatchItemResult.Status.INVALID, "id is required");
+            }
+            return BatchItemResult.of(id.trim(),
+                    deleteSchema(id.trim()) ? BatchItemResult.Status.OK : BatchItemResult.Status.NOT_FOUND, null);
+        });
+    }
+
+    @FunctionalInterface
+    private interface BatchTask<T> {
+        BatchItemResult run(T item) throws IOException;
+    }
+
+    private <T> List<BatchItemResult> runBatch(List<T> items, Function<T, String> idOf, BatchTask<T> task)
+            throws IOException {
+        if (items == null || items.isEmpty()) {
+            return List.of();
+        }
+        if (items.size() > batchMaxItems) {
+            throw new IllegalArgumentException("batch size must be at most " + batchMaxItems);
+        }
+        List<Future<BatchItemResult>> futures = new ArrayList<>(items.size());
+        for (T item : items) {
+            futures.add(ioExecutor.submit(() -> task.run(item)));
+        }
+        List<BatchItemResult> results = new ArrayList<>(items.size());
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    results.add(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    // One failing item must not fail its neighbours.
+                    Throwable cause = e.getCause();
+                    log.warn("Batch item {} failed", idOf.apply(items.get(i)), cause);
+                    results.add(BatchItemResult.failed(idOf.apply(items.get(i)), BatchItemResult.Status.ERROR,
+                            String.valueOf(cause.getMessage())));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(f -> f.cancel(true));
+            throw new IOException("Batch interrupted", e);
+        }
+        return results;
+    }
+
+    private static boolean isBlank(String s) {
+        return s == null || s.trim().isEmpty();
+    }
+
     /**
      * 创建Schema
      * @param schema Schema对象
@@ -90,13 +683,23 @@ public class SchemaService {
      * @throws IOException IO异常
      */
     public Schema createSchema(Schema schema) throws IOException {
+        return createSchema(schema, random);
+    }
+
+    private Schema createSchema(Schema schema, RandomSource random) throws IOException {
         // 生成唯一ID
         String id = UUID.randomUUID().toString().replace("-", "");
         schema.setId(id);
-        ensureInitialValuesPopulated(schema);
-        persistInitialValuesToData(schema);
-        // 写入文件
-        writeSchemaToFile(schema);
+        ensureInitialValuesPopulated(schema, random);
+        ReentrantLock lock = locks.forId(id);
+        lock.lock();
+        try {
+            persistInitialValuesToData(schema);
+            // 写入文件
+            writeSchemaToFile(schema);
+        } finally {
+            lock.unlock();
+        }
         return schema;
     }
 
@@ -108,15 +711,20 @@ public class SchemaService {
      * @throws IOException IO异常
      */
     public Schema updateSchema(String id, Schema schema) throws IOException {
-        File file = new File(schemaDir, id + ".json");
-        if (!file.exists()) {
-            return null;
+        ReentrantLock lock = locks.forId(id);
+        lock.lock();
+        try {
+            if (!store.exists(id)) {
+                return null;
+            }
+            schema.setId(id);
+            persistInitialValuesToData(schema);
+            // 写入文件
+            writeSchemaToFile(schema);
+            return schema;
+        } finally {
+            lock.unlock();
         }
-        schema.setId(id);
-        persistInitialValuesToData(schema);
-        // 写入文件
-        writeSchemaToFile(schema);
-        return schema;
     }
 
     /**
@@ -125,86 +733,211 @@ public class SchemaService {
      * @return 是否删除成功
      */
     public boolean deleteSchema(String id) {
-        File file = new File(schemaDir, id + ".json");
-        boolean deleted = file.delete();
-        // Best-effort: keep schema/data 1:1 mapping.
-        deleteSchemaData(id);
-        return deleted;
-    }
-
-    /**
-     * 从文件读取Schema
-     * @param file 文件对象
-     * @return Schema对象
-     * @throws IOException IO异常
-     */
-    private Schema readSchemaFromFile(File file) throws IOException {
-        // New format: {"id":"...","value":{...}}
+        ReentrantLock lock = locks.forId(id);
+        lock.lock();
         try {
-            Schema schema = objectMapper.readValue(file, Schema.class);
-            ensureDataFileForBackwardCompat(schema);
-            return schema;
-        } catch (MismatchedInputException ignored) {
-            // Backward compatibility: historical files stored only the value JSON.
-            JsonNode value = objectMapper.readTree(file);
-            Schema schema = new Schema();
-            String filename = file.getName();
-            schema.setId(filename.endsWith(".json") ? filename.substring(0, filename.length() - 5) : filename);
-            schema.setValue(value);
-            ensureDataFileForBackwardCompat(schema);
-            return schema;
+            boolean deleted;
+            try {
+                deleted = store.delete(id);
+                index.remove(id);
+            } catch (IOException e) {
+                log.warn("Failed to delete schema {}", id, e);
+                metrics.error("delete", e);
+                deleted = false;
+            } finally {
+                schemaCache.invalidate(id);
+            }
+            // Best-effort: keep schema/data 1:1 mapping.
+            deleteSchemaData(id);
+            if (deleted) {
+                for (DeleteListener listener : deleteListeners) {
+                    try {
+                        listener.deleted(id);
+                    } catch (IOException e) {
+                        log.warn("Delete listener failed for schema {}", id, e);
+                    }
+                }
+            }
+            return deleted;
+        } finally {
+            lock.unlock();
         }
     }
 
     /**
-     * 将Schema写入文件
+     * 将Schema写入存储
      * @param schema Schema对象
      * @throws IOException IO异常
      */
     private void writeSchemaToFile(Schema schema) throws IOException {
-        File file = new File(schemaDir, schema.getId() + ".json");
-        Schema toWrite = new Schema();
-        toWrite.setId(schema.getId());
-        toWrite.setValue(stripInitialValues(schema.getValue()));
-        try (FileWriter writer = new FileWriter(file)) {
-            objectMapper.writerWithDefaultPrettyPrinter().writeValue(writer, toWrite);
+        try {
+            store.put(schema);
+            index.update(schema.getId(), schema.getValue(), store.stat(schema.getId()));
+        } finally {
+            schemaCache.invalidate(schema.getId());
         }
     }
 
     /**
      * Upsert：如果提供了id则尝试更新，不存在则按指定id创建；未提供id则生成id创建。
+     * 同一id上的并发保存按顺序执行，Schema与数据始终来自同一次保存。
      */
     public Schema saveSchema(Schema schema) throws IOException {
+        return saveSchema(schema, null);
+    }
+
+    /**
+     * 保存Schema，语义同 {@link #saveSchema(Schema)}
+     * @param seed 生成缺失初始值所用的随机种子；相同种子与Schema生成相同的值，为null时随机生成
+     */
+    public Schema saveSchema(Schema schema, Long seed) throws IOException {
+        return metrics.observe("save", () -> save(schema, seed));
+    }
+
+    private Schema save(Schema schema, Long seed) throws IOException {
+        RandomSource random = seed != null ? RandomSource.seeded(seed) : this.random;
         if (schema.getId() == null || schema.getId().trim().isEmpty()) {
-            return createSchema(schema);
+            return createSchema(schema, random);
         }
-        File file = new File(schemaDir, schema.getId() + ".json");
-        if (file.exists()) {
-            return updateSchema(schema.getId(), schema);
+        ReentrantLock lock = locks.forId(schema.getId());
+        lock.lock();
+        try {
+            if (store.exists(schema.getId())) {
+                return updateSchema(schema.getId(), schema);
+            }
+            // Create with client-provided id
+            ensureInitialValuesPopulated(schema, random);
+            persistInitialValuesToData(schema);
+            writeSchemaToFile(schema);
+            return schema;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 局部更新Schema：在该id的写锁内把补丁应用到当前Schema（不含initial_values）上并写回
+     * 补丁中写入的 initial_values 与 {@link #saveSchema} 一样转存到数据文档。
+     * @param id Schema ID
+     * @param patch 补丁文档
+     * @param format 补丁格式
+     * @param expectedTags 可接受的当前版本标记（If-Match），为空时不校验
+     * @return 更新后的版本，Schema不存在时返回null
+     * @throws PatchConflictException 版本不匹配或 test 操作失败
+     * @throws IllegalArgumentException 补丁无效，或应用后的结果不是JSON对象
+     * @throws IOException IO异常
+     */
+    public SchemaVersion patchSchema(String id, JsonNode patch, PatchFormat format, List<String> expectedTags)
+            throws IOException {
+        return metrics.observe("patch", () -> {
+            ReentrantLock lock = locks.forId(id);
+            lock.lock();
+            try {
+                Schema schema = loadSchema(id, false);
+                if (schema == null) {
+                    return null;
+                }
+                checkVersion(id, expectedTags);
+                schema.setValue(requireObject(format.apply(schema.getValue(), patch)));
+                persistInitialValuesToData(schema);
+                writeSchemaToFile(schema);
+                return getSchemaVersion(id);
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    /**
+     * 局部更新Schema数据（initial_values）；数据文档不存在时以空对象为目标
+     * @return 更新后的Schema版本，Schema不存在时返回null
+     * @throws PatchConflictException 版本不匹配或 test 操作失败
+     * @throws IllegalArgumentException 补丁无效，或应用后的结果不是JSON对象
+     * @throws IOException IO异常
+     */
+    public SchemaVersion patchSchemaData(String id, JsonNode patch, PatchFormat format, List<String> expectedTags)
+            throws IOException {
+        return metrics.observe("patchData", () -> {
+            ReentrantLock lock = locks.forId(id);
+            lock.lock();
+            try {
+                if (!store.exists(id)) {
+                    return null;
+                }
+                checkVersion(id, expectedTags);
+                JsonNode data = loadData(id);
+                storeData(id, requireObject(format.apply(data == null ? objectMapper.createObjectNode() : data, patch)));
+                return getSchemaVersion(id);
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    // A merge patch with a non-object root, or a replace at "", swaps out the whole document.
+    private static JsonNode requireObject(JsonNode patched) {
+        if (patched == null || !patched.isObject()) {
+            throw new IllegalArgumentException("patch result must be a JSON object");
+        }
+        return patched;
+    }
+
+    private void checkVersion(String id, List<String> expectedTags) throws IOException {
+        if (expectedTags == null || expectedTags.isEmpty()) {
+            return;
+        }
+        SchemaVersion current = getSchemaVersion(id);
+        if (current == null || !expectedTags.contains(current.tag())) {
+            throw new PatchConflictException("schema " + id + " is not at the expected version", true);
         }
-        // Create with client-provided id
-        ensureInitialValuesPopulated(schema);
-        persistInitialValuesToData(schema);
-        writeSchemaToFile(schema);
-        return schema;
     }
 
     public JsonNode getSchemaData(String id) throws IOException {
-        File file = new File(dataDir, id + ".json");
-        if (!file.exists()) return null;
-        return objectMapper.readTree(file);
+        return metrics.observe("getData", () -> loadData(id));
+    }
+
+    private JsonNode loadData(String id) throws IOException {
+        JsonNode cached = dataCache.get(id);
+        if (cached == null) {
+            long generation = dataCache.generation();
+            cached = store.getData(id);
+            if (cached == null) return null;
+            dataCache.putIfUnchanged(id, cached, weightOf(store.statData(id)), generation);
+        }
+        return cached.deepCopy();
     }
 
     public void saveSchemaData(String id, JsonNode data) throws IOException {
-        File file = new File(dataDir, id + ".json");
-        try (FileWriter writer = new FileWriter(file)) {
-            objectMapper.writerWithDefaultPrettyPrinter().writeValue(writer, data);
+        metrics.observe("saveData", () -> {
+            storeData(id, data);
+            return null;
+        });
+    }
+
+    private void storeData(String id, JsonNode data) throws IOException {
+        ReentrantLock lock = locks.forId(id);
+        lock.lock();
+        try {
+            store.putData(id, data);
+        } finally {
+            dataCache.invalidate(id);
+            lock.unlock();
         }
     }
 
     public boolean deleteSchemaData(String id) {
-        File file = new File(dataDir, id + ".json");
-        return file.delete();
+        ReentrantLock lock = locks.forId(id);
+        lock.lock();
+        try {
+            return store.deleteData(id);
+        } catch (IOException e) {
+            log.warn("Failed to delete data of schema {}", id, e);
+            metrics.error("deleteData", e);
+            return false;
+        } finally {
+            dataCache.invalidate(id);
+            lock.unlock();
+        }
     }
 
     private void persistInitialValuesToData(Schema schema) throws IOException {
@@ -213,10 +946,10 @@ public class SchemaService {
         if (value == null || !value.isObject()) return;
         JsonNode initialValues = value.get("initial_values");
         if (initialValues == null || initialValues.isNull()) return;
-        saveSchemaData(schema.getId(), initialValues);
+        storeData(schema.getId(), initialValues);
     }
 
-    private void ensureInitialValuesPopulated(Schema schema) {
+    void ensureInitialValuesPopulated(Schema schema, RandomSource random) {
         if (schema == null) return;
         JsonNode value = schema.getValue();
         if (value == null || !value.isObject()) return;
@@ -231,115 +964,118 @@ public class SchemaService {
             valueObj.set("initial_values", initialObj);
         }
 
-        JsonNode schemaNode =
-                (valueObj.hasNonNull("schema") && valueObj.get("schema").isObject())
-                        ? valueObj.get("schema")
-                        : valueObj;
-
         // Fill missing/blank fields; keep any client-provided non-empty values.
-        collectInitialValues(initialObj, schemaNode);
+        long start = System.nanoTime();
+        initialValuesPlan(schemaNodeOf(valueObj)).populate(initialObj, random);
+        metrics.generated(System.nanoTime() - start);
     }
 
-    private void collectInitialValues(ObjectNode out, JsonNode schemaNode) {
-        if (schemaNode == null || schemaNode.isNull()) return;
+    private static JsonNode schemaNodeOf(JsonNode value) {
+        return value.hasNonNull("schema") && value.get("schema").isObject() ? value.get("schema") : value;
+    }
 
-        // Formily schema commonly uses { properties: { ... } } as the container.
-        if (schemaNode.has("properties") && schemaNode.get("properties").isObject()) {
-            schemaNode.get("properties").fields()
-                    .forEachRemaining(e -> collectField(out, e.getKey(), e.getValue()));
+    /**
+     * 按Schema批量生成示例数据，以NDJSON写出，每行一条初始值记录
+     * 记录按块在公共线程池上并行生成并序列化，同时在途的块数有上限，内存占用与count无关。
+     * @param schema Schema对象
+     * @param count 记录条数，0到 {@link #MAX_SAMPLES}
+     * @param seed 随机种子；为null时随机生成，指定种子且ordered时输出可完全复现
+     * @param ordered 是否按生成顺序输出；为false时先完成的块先写出
+     * @param out 输出流，调用方负责关闭
+     * @throws IOException IO异常（包括客户端断开）
+     */
+    public void writeSamples(Schema schema, long count, Long seed, boolean ordered, OutputStream out)
+            throws IOException {
+        if (count < 0 || count > MAX_SAMPLES) {
+            throw new IllegalArgumentException("count must be between 0 and " + MAX_SAMPLES);
         }
+        metrics.observe("samples", () -> {
+            streamSamples(schema, count, seed, ordered, out);
+            return null;
+        });
     }
 
-    private void collectField(ObjectNode out, String key, JsonNode field) {
-        if (field == null || field.isNull()) return;
-
-        String xComponent = field.hasNonNull("x-component") ? field.get("x-component").asText() : "";
+    private void streamSamples(Schema schema, long count, Long seed, boolean ordered, OutputStream out)
+            throws IOException {
+        JsonNode value = schema.getValue();
+        InitialValuesPlan plan = initialValuesPlan(
+                value != null && value.isObject() ? schemaNodeOf(value) : objectMapper.nullNode());
+        // Chunk seeds are drawn on this thread in chunk order, so each chunk's values do not depend
+        // on which worker runs it.
+        SplittableRandom seeds = seed != null ? new SplittableRandom(seed) : null;
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
 
-        // Container nodes (Card/Tabs/...) usually carry child properties.
-        if (field.has("properties") && field.get("properties").isObject()) {
-            // Tabs often needs a current value (active pane).
-            if ("Tabs".equals(xComponent)) {
-                if (shouldFill(out.get(key))) {
-                    out.put(key, randomTabsValue(field));
+        ExecutorService pool = ForkJoinPool.commonPool();
+        CompletionService<byte[]> completed = new ExecutorCompletionService<>(pool);
+        int window = 2 * ForkJoinPool.getCommonPoolParallelism();
+        Deque<Future<byte[]>> inFlight = new ArrayDeque<>(window);
+        long submitted = 0;
+        try {
+            while (submitted < count || !inFlight.isEmpty()) {
+                while (submitted < count && inFlight.size() < window) {
+                    int n = (int) Math.min(SAMPLE_CHUNK, count - submitted);
+                    RandomSource chunkRandom = seeds != null ? RandomSource.seeded(seeds.nextLong()) : random;
+                    Callable<byte[]> task = () -> sampleChunk(plan, n, chunkRandom, writer);
+                    // Ordered mode must not use the completion queue: nobody drains it, so it would
+                    // keep every finished chunk reachable.
+                    inFlight.add(ordered ? pool.submit(task) : completed.submit(task));
+                    submitted += n;
                 }
+                Future<byte[]> next;
+                if (ordered) {
+                    next = inFlight.poll();
+                } else {
+                    next = completed.take();
+                    inFlight.remove(next);
+                }
+                out.write(next.get());
             }
-            field.get("properties").fields()
-                    .forEachRemaining(e -> collectField(out, e.getKey(), e.getValue()));
-            return;
-        }
-
-        // Leaf fields: generate value based on enum/type/component.
-        if (!shouldFill(out.get(key))) {
-            return;
-        }
-
-        JsonNode enumNode = field.get("enum");
-        if (enumNode != null && enumNode.isArray() && enumNode.size() > 0) {
-            JsonNode picked = enumNode.get(random.nextInt(enumNode.size()));
-            JsonNode v = picked;
-            if (picked.isObject() && picked.hasNonNull("value")) {
-                v = picked.get("value");
-            }
-            if (v.isBoolean()) out.put(key, v.asBoolean());
-            else if (v.isInt() || v.isLong()) out.put(key, v.asLong());
-            else if (v.isNumber()) out.put(key, v.asDouble());
-            else out.put(key, v.asText());
-            return;
+            out.flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Sample generation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Sample generation failed", e.getCause());
+        } finally {
+            inFlight.forEach(f -> f.cancel(true));
         }
-
-        String type = field.hasNonNull("type") ? field.get("type").asText() : "";
-        if ("boolean".equals(type) || "Switch".equals(xComponent)) {
-            out.put(key, random.nextBoolean());
-            return;
-        }
-        if ("number".equals(type) || "integer".equals(type) || "NumberPicker".equals(xComponent)) {
-            out.put(key, 1 + random.nextInt(100));
-            return;
-        }
-        if ("DateTimePicker".equals(xComponent)) {
-            // ISO-8601 string is the safest default.
-            long now = System.currentTimeMillis();
-            long delta = (long) random.nextInt(30) * 24 * 60 * 60 * 1000L;
-            out.put(key, new Date(now + delta).toInstant().toString());
-            return;
-        }
-
-        // Default: string-ish value.
-        out.put(key, key + "_" + randomAlphaNum(6));
-    }
-
-    private boolean shouldFill(JsonNode current) {
-        if (current == null || current.isNull()) return true;
-        if (current.isTextual()) return current.asText().trim().isEmpty();
-        return false;
     }
 
-    private String randomTabsValue(JsonNode field) {
-        JsonNode props = field.hasNonNull("x-component-props") ? field.get("x-component-props") : null;
-        JsonNode panes = props != null ? props.get("panes") : null;
-        if (panes != null && panes.isArray() && panes.size() > 0) {
-            JsonNode picked = panes.get(random.nextInt(panes.size()));
-            if (picked.isObject() && picked.hasNonNull("name")) {
-                return picked.get("name").asText();
+    private static byte[] sampleChunk(InitialValuesPlan plan, int n, RandomSource random, ObjectWriter writer)
+            throws IOException {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream(n * 64);
+        try (JsonGenerator generator = writer.getFactory().createGenerator(buf)) {
+            // Lines are terminated explicitly; the default root separator would be a space.
+            generator.setRootValueSeparator(null);
+            for (int i = 0; i < n; i++) {
+                ObjectNode record = JsonNodeFactory.instance.objectNode();
+                plan.populate(record, random);
+                writer.writeValue(generator, record);
+                generator.writeRaw('\n');
             }
         }
-        return "";
+        return buf.toByteArray();
     }
 
-    private String randomAlphaNum(int len) {
-        final String chars = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789";
-        StringBuilder sb = new StringBuilder(len);
-        for (int i = 0; i < len; i++) {
-            sb.append(chars.charAt(random.nextInt(chars.length())));
+    /**
+     * 取得Schema的初始值生成计划；内容相同的Schema共用同一份编译结果
+     */
+    InitialValuesPlan initialValuesPlan(JsonNode schemaNode) {
+        String hash = ContentHash.of(schemaNode);
+        InitialValuesPlan plan = planCache.get(hash);
+        if (plan == null) {
+            plan = InitialValuesPlan.compile(schemaNode);
+            // Bounded by entry count only; the step count is reported as weight in the stats.
+            planCache.put(hash, plan, plan.size());
         }
-        return sb.toString();
+        return plan;
     }
 
     private void attachInitialValuesFromData(Schema schema) throws IOException {
         if (schema == null || schema.getId() == null || schema.getId().trim().isEmpty()) return;
         JsonNode value = schema.getValue();
         if (value != null && value.isObject()) {
-            JsonNode data = getSchemaData(schema.getId());
+            JsonNode data = loadData(schema.getId());
             // Keep response shape stable for the frontend: always provide initial_values.
             ((ObjectNode) value).set("initial_values", data == null ? objectMapper.createObjectNode() : data);
         }
@@ -347,21 +1083,31 @@ public class SchemaService {
 
     private void ensureDataFileForBackwardCompat(Schema schema) throws IOException {
         if (schema == null || schema.getId() == null || schema.getId().trim().isEmpty()) return;
-        File file = new File(dataDir, schema.getId() + ".json");
-        if (file.exists()) return;
+        if (store.statData(schema.getId()) != null) return;
         JsonNode value = schema.getValue();
         if (value == null || !value.isObject()) return;
         JsonNode initialValues = value.get("initial_values");
         if (initialValues == null || initialValues.isNull()) return;
-        saveSchemaData(schema.getId(), initialValues);
+        ReentrantLock lock = locks.forId(schema.getId());
+        lock.lock();
+        try {
+            // Re-check under the lock: a concurrent save or delete must not be overwritten by legacy values.
+            if (store.statData(schema.getId()) != null || !store.exists(schema.getId())) return;
+            storeData(schema.getId(), initialValues);
+        } finally {
+            lock.unlock();
+        }
     }
 
-    private JsonNode stripInitialValues(JsonNode value) {
-        if (value != null && value.isObject()) {
-            ObjectNode copy = ((ObjectNode) value).deepCopy();
-            copy.remove("initial_values");
-            return copy;
-        }
-        return value;
+    private static Schema copyOf(Schema source) {
+        Schema copy = new Schema();
+        copy.setId(source.getId());
+        copy.setValue(source.getValue() == null ? null : source.getValue().deepCopy());
+        return copy;
+    }
+
+    private static long weightOf(SchemaStore.EntryInfo info) {
+        // Entry vanished between read and stat: weigh it as free, the next invalidation drops it anyway.
+        return info == null ? 0L : info.size();
     }
 }
@@ -0,0 +1,96 @@
+package com.formily.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.formily.model.SchemaSummary;
+
+import java.io.IOException;
+
+/**
+ * 基于Jackson流式JsonParser提取Schema摘要
+ * 只关心根标题和properties结构，其余子树直接skipChildren，不构建JsonNode树。
+ * 同时兼容新格式 {"id":...,"value":{...}} 与只存value的历史格式。
+ */
+final class SchemaSummaryReader {
+    private SchemaSummaryReader() {}
+
+    static SchemaSummary read(JsonParser parser, String id, long lastModified) throws IOException {
+        Accumulator acc = new Accumulator();
+        if (parser.nextToken() == JsonToken.START_OBJECT) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.currentName();
+                parser.nextToken();
+                if ("value".equals(name)) {
+                    readValueNode(parser, acc);
+                } else if (!"id".equals(name)) {
+                    // Legacy layout: the top-level object is the value itself.
+                    readValueField(parser, name, acc);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return new SchemaSummary(id, acc.title, acc.fieldCount, lastModified);
+    }
+
+    private static void readValueNode(JsonParser parser, Accumulator acc) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            parser.nextToken();
+            readValueField(parser, name, acc);
+        }
+    }
+
+    private static void readValueField(JsonParser parser, String name, Accumulator acc) throws IOException {
+        if ("schema".equals(name)) {
+            readSchemaNode(parser, acc, true);
+        } else if ("title".equals(name) && parser.currentToken() == JsonToken.VALUE_STRING) {
+            // value.title only counts when value.schema does not carry one.
+            if (acc.title == null) acc.title = parser.getText();
+        } else if ("properties".equals(name)) {
+            // Bare schema stored directly as value.
+            readProperties(parser, acc);
+        } else {
+            parser.skipChildren();
+        }
+    }
+
+    private static void readSchemaNode(JsonParser parser, Accumulator acc, boolean root) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if (root && "title".equals(name) && token == JsonToken.VALUE_STRING) {
+                acc.title = parser.getText();
+            } else if ("properties".equals(name)) {
+                readProperties(parser, acc);
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private static void readProperties(JsonParser parser, Accumulator acc) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            parser.nextToken();
+            acc.fieldCount++;
+            readSchemaNode(parser, acc, false);
+        }
+    }
+
+    private static final class Accumulator {
+        private String title;
+        private int fieldCount;
+    }
+}
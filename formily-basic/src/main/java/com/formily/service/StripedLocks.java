@@ -0,0 +1,29 @@
+package com.formily.service;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 按id分段的锁：同一id的写操作串行执行，不同id大概率落在不同分段上并行执行
+ * 锁数量固定，不随id数量增长。
+ */
+final class StripedLocks {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    StripedLocks(int minStripes) {
+        int size = Integer.highestOneBit(Math.max(1, minStripes - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    ReentrantLock forId(String id) {
+        int h = id.hashCode();
+        // Spread high bits so ids sharing a suffix do not pile onto one stripe.
+        h ^= (h >>> 16);
+        return stripes[h & mask];
+    }
+}
@@ -0,0 +1,122 @@
+package com.formily.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.formily.config.StorageProperties;
+import com.formily.model.SubmissionPage;
+import com.formily.model.SubmissionReceipt;
+import com.formily.store.SubmissionStore;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * 表单提交记录服务
+ * 提交按Schema追加到 resources/submissions/{id}/ 下的NDJSON日志，只追加不改写；
+ * 删除Schema时关闭其日志但不删除提交记录，按同一id重新创建Schema后可以继续读取。
+ */
+@Service
+public class SubmissionService {
+
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private final SchemaService schemaService;
+    private final SchemaMetrics metrics;
+    private final SubmissionStore store;
+    private final int maxBatchItems;
+
+    public SubmissionService(SchemaService schemaService, StorageProperties properties) {
+        this(schemaService, properties, SchemaMetrics.none());
+    }
+
+    @Autowired
+    public SubmissionService(SchemaService schemaService, StorageProperties properties, SchemaMetrics metrics) {
+        this.schemaService = schemaService;
+        this.metrics = metrics;
+        StorageProperties.Submissions config = properties.getSubmissions();
+        this.maxBatchItems = config.getMaxBatchItems();
+        try {
+            this.store = new SubmissionStore(Paths.get(SchemaService.resolveResourceDir("submissions")),
+                    properties.getFsync(), properties.getFsyncIntervalMillis(), config.getSegmentMaxBytes(),
+                    config.getIdleCloseMillis(), new ObjectMapper());
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to create submissions directory", e);
+        }
+        schemaService.onDelete(store::release);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        store.close();
+    }
+
+    /**
+     * 追加提交记录，同一请求中的记录序号连续
+     * @param schemaId Schema ID
+     * @param data 表单数据，每条必须是JSON对象
+     * @return 写入结果，Schema不存在时返回null
+     * @throws IllegalArgumentException 为空、超过 max-batch-items 或包含非对象的记录
+     * @throws IOException IO异常
+     */
+    public SubmissionReceipt submit(String schemaId, List<JsonNode> data) throws IOException {
+        if (data.isEmpty() || data.size() > maxBatchItems) {
+            throw new IllegalArgumentException("submission count must be between 1 and " + maxBatchItems);
+        }
+        for (JsonNode item : data) {
+            if (item == null || !item.isObject()) {
+                throw new IllegalArgumentException("each submission must be a JSON object");
+            }
+        }
+        return metrics.observe("submit", () -> {
+            if (!schemaService.exists(schemaId)) {
+                return null;
+            }
+            return new SubmissionReceipt(store.append(schemaId, data), data.size());
+        });
+    }
+
+    /**
+     * 按序号分页读取提交记录
+     * @param from 起始序号（含）
+     * @param limit 最多返回的条数
+     * @return 分页结果，Schema不存在时返回null
+     * @throws IOException IO异常
+     */
+    public SubmissionPage getSubmissions(String schemaId, long from, int limit) throws IOException {
+        if (from < 0 || limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("from must be >= 0 and limit between 1 and " + MAX_PAGE_SIZE);
+        }
+        return metrics.observe("submissions", () -> {
+            if (!schemaService.exists(schemaId)) {
+                return null;
+            }
+            SubmissionPage page = store.read(schemaId, from, limit);
+            metrics.listed("submissions", page.items().size());
+            return page;
+        });
+    }
+
+    /**
+     * 提交记录总数
+     * @return 总数，Schema不存在时返回null
+     */
+    public Long countSubmissions(String schemaId) throws IOException {
+        return schemaService.exists(schemaId) ? store.count(schemaId) : null;
+    }
+
+    /**
+     * 把从序号from开始、截至调用时的全部提交记录按存储格式原样写出为NDJSON，不解析记录
+     * @throws IOException IO异常
+     */
+    public void writeSubmissions(String schemaId, long from, OutputStream out) throws IOException {
+        if (from < 0) {
+            throw new IllegalArgumentException("from must be >= 0");
+        }
+        metrics.observe("streamSubmissions", () -> store.copyTo(schemaId, from, out));
+    }
+}
@@ -0,0 +1,329 @@
+package com.formily.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.formily.model.Schema;
+import com.formily.store.SchemaStore;
+import com.formily.store.StoreMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 延迟写入：写操作只更新内存中该id的最新内容，由后台任务按间隔合并写入底层存储
+ * <ul>
+ *     <li>同一id在一个间隔内的多次保存只落盘最后一次，读取（含stat/scan）优先返回尚未落盘的内容；</li>
+ *     <li>落盘在SchemaService的该id写锁内进行，与同一id上的保存、迁移互斥；失败的条目保留到下一轮重试；</li>
+ *     <li>落盘后stat仍返回写入时的元信息（直到文件被外部修改或删除，此后不再保留），版本标识不会因落盘而变化；</li>
+ *     <li>close时先写完所有待写内容再关闭底层存储；进程被强制终止时最多丢失一个间隔内的保存。</li>
+ * </ul>
+ */
+final class WriteBehindStore implements SchemaStore {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindStore.class);
+
+    private final SchemaStore delegate;
+    private final StripedLocks locks;
+    private final SchemaMetrics metrics;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    // Latest unflushed write per id; a null payload is a pending delete.
+    private final Map<String, Pending> schemas = new ConcurrentHashMap<>();
+    private final Map<String, Pending> data = new ConcurrentHashMap<>();
+    // What stat reported before a flush, valid while the stored entry is the one that flush wrote.
+    private final Map<String, Alias> schemaAliases = new ConcurrentHashMap<>();
+    private final Map<String, Alias> dataAliases = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher;
+
+    WriteBehindStore(SchemaStore delegate, StripedLocks locks, long flushIntervalMillis, SchemaMetrics metrics) {
+        this.delegate = delegate;
+        this.locks = locks;
+        this.metrics = metrics;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "formily-write-behind");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = Math.max(1, flushIntervalMillis);
+        flusher.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 底层存储，供只针对特定实现的管理操作使用
+     */
+    SchemaStore delegate() {
+        return delegate;
+    }
+
+    /**
+     * 待写入的Schema与数据文档数
+     */
+    int pendingCount() {
+        return schemas.size() + data.size();
+    }
+
+    /**
+     * 已落盘、stat仍按写入时元信息报告的Schema与数据文档数
+     */
+    int aliasCount() {
+        return schemaAliases.size() + dataAliases.size();
+    }
+
+    @Override
+    public Schema get(String id) throws IOException {
+        Pending pending = schemas.get(id);
+        if (pending == null) {
+            return delegate.get(id);
+        }
+        return pending.payload == null ? null : objectMapper.readValue(pending.payload, Schema.class);
+    }
+
+    @Override
+    public void put(Schema schema) throws IOException {
+        // Serialized right away: the bytes are the snapshot, so the caller may keep mutating its tree.
+        ObjectNode document = objectMapper.createObjectNode();
+        document.put("id", schema.getId());
+        JsonNode value = schema.getValue();
+        if (value != null && value.isObject() && value.has("initial_values")) {
+            // Shallow: only the top level is rebuilt, children are shared for the duration of the write.
+            ObjectNode stored = objectMapper.createObjectNode();
+            Iterator<Map.Entry<String, JsonNode>> fields = value.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                if (!"initial_values".equals(field.getKey())) {
+                    stored.set(field.getKey(), field.getValue());
+                }
+            }
+            value = stored;
+        }
+        document.set("value", value);
+        schemas.put(schema.getId(), Pending.of(schema.getId(), objectMapper.writeValueAsBytes(document)));
+    }
+
+    @Override
+    public boolean delete(String id) throws IOException {
+        boolean existed = stat(id) != null;
+        schemas.put(id, Pending.deleted(id));
+        return existed;
+    }
+
+    @Override
+    public EntryInfo stat(String id) throws IOException {
+        Pending pending = schemas.get(id);
+        return pending != null ? pending.reported() : aliased(schemaAliases, id, delegate.stat(id), delegate::stat);
+    }
+
+    @Override
+    public void scan(EntryVisitor visitor) throws IOException {
+        Map<String, Pending> snapshot = Map.copyOf(schemas);
+        Set<String> seen = new HashSet<>();
+        delegate.scan(entry -> {
+            seen.add(entry.id());
+            Pending pending = snapshot.get(entry.id());
+            EntryInfo info = pending != null ? pending.reported() : aliased(schemaAliases, entry.id(), entry, delegate::stat);
+            if (info != null) {
+                visitor.visit(info);
+            }
+        });
+        for (Pending pending : snapshot.values()) {
+            if (pending.payload != null && !seen.contains(pending.info.id())) {
+                visitor.visit(pending.info);
+            }
+        }
+    }
+
+    @Override
+    public JsonParser openSchema(String id) throws IOException {
+        Pending pending = schemas.get(id);
+        if (pending == null) {
+            return delegate.openSchema(id);
+        }
+        return pending.payload == null ? null : objectMapper.createParser(pending.payload);
+    }
+
+    @Override
+    public JsonNode getData(String id) throws IOException {
+        Pending pending = data.get(id);
+        if (pending == null) {
+            return delegate.getData(id);
+        }
+        return pending.payload == null ? null : objectMapper.readTree(pending.payload);
+    }
+
+    @Override
+    public void putData(String id, JsonNode value) throws IOException {
+        data.put(id, Pending.of(id, objectMapper.writeValueAsBytes(value)));
+    }
+
+    @Override
+    public boolean deleteData(String id) throws IOException {
+        boolean existed = statData(id) != null;
+        data.put(id, Pending.deleted(id));
+        return existed;
+    }
+
+    @Override
+    public EntryInfo statData(String id) throws IOException {
+        Pending pending = data.get(id);
+        return pending != null ? pending.reported() : aliased(dataAliases, id, delegate.statData(id), delegate::statData);
+    }
+
+    @Override
+    public int formatVersion() throws IOException {
+        return delegate.formatVersion();
+    }
+
+    @Override
+    public void setMetrics(StoreMetrics metrics) {
+        delegate.setMetrics(metrics);
+    }
+
+    @Override
+    public void watch(ChangeListener listener) throws IOException {
+        delegate.watch(listener);
+    }
+
+    /**
+     * 把所有待写内容写入底层存储
+     * @return 写入（含删除）的文档数
+     */
+    int flush() throws IOException {
+        return metrics.observe("flush", this::flushAll);
+    }
+
+    private int flushAll() throws IOException {
+        Set<String> ids = new HashSet<>(schemas.keySet());
+        ids.addAll(data.keySet());
+        int written = 0;
+        IOException failure = null;
+        for (String id : ids) {
+            ReentrantLock lock = locks.forId(id);
+            lock.lock();
+            try {
+                // Data first, as a direct save does.
+                written += flushOne(id, data, dataAliases, false);
+                written += flushOne(id, schemas, schemaAliases, true);
+            } catch (IOException e) {
+                // Left pending for the next round; one bad id must not hold back the rest.
+                log.warn("Failed to flush schema {}", id, e);
+                failure = e;
+            } finally {
+                lock.unlock();
+            }
+        }
+        metrics.listed("flush", written);
+        if (failure != null) {
+            throw failure;
+        }
+        return written;
+    }
+
+    // Caller holds the id's write lock, so no save can replace the entry meanwhile.
+    private int flushOne(String id, Map<String, Pending> pendingWrites, Map<String, Alias> aliases, boolean schema)
+            throws IOException {
+        Pending pending = pendingWrites.get(id);
+        if (pending == null) {
+            return 0;
+        }
+        if (pending.payload == null) {
+            if (schema) {
+                delegate.delete(id);
+            } else {
+                delegate.deleteData(id);
+            }
+            aliases.remove(id);
+        } else {
+            EntryInfo written;
+            if (schema) {
+                delegate.put(objectMapper.readValue(pending.payload, Schema.class));
+                written = delegate.stat(id);
+            } else {
+                delegate.putData(id, objectMapper.readTree(pending.payload));
+                written = delegate.statData(id);
+            }
+            if (written != null) {
+                aliases.put(id, new Alias(written, pending.info));
+            }
+        }
+        pendingWrites.remove(id);
+        return 1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            flush();
+        } finally {
+            delegate.close();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (IOException | RuntimeException e) {
+            log.error("Write-behind flush failed", e);
+        }
+    }
+
+    private static EntryInfo aliased(Map<String, Alias> aliases, String id, EntryInfo stored, Stat stat)
+            throws IOException {
+        Alias alias = aliases.get(id);
+        if (alias == null) {
+            return stored;
+        }
+        if (alias.stored.equals(stored)) {
+            return alias.reported;
+        }
+        // Stored may predate the flush that added the alias; a second look is after it, so a mismatch is real.
+        EntryInfo current = stat.stat(id);
+        if (alias.stored.equals(current)) {
+            return alias.reported;
+        }
+        aliases.remove(id, alias);
+        return current;
+    }
+
+    @FunctionalInterface
+    private interface Stat {
+        EntryInfo stat(String id) throws IOException;
+    }
+
+    /**
+     * @param payload 序列化后的文档，null表示待删除
+     * @param info 写入时对外报告的元信息
+     */
+    private record Pending(byte[] payload, EntryInfo info) {
+        static Pending of(String id, byte[] payload) {
+            return new Pending(payload, new EntryInfo(id, System.currentTimeMillis(), payload.length));
+        }
+
+        static Pending deleted(String id) {
+            return new Pending(null, new EntryInfo(id, System.currentTimeMillis(), 0));
+        }
+
+        EntryInfo reported() {
+            return payload == null ? null : info;
+        }
+    }
+
+    private record Alias(EntryInfo stored, EntryInfo reported) {
+    }
+}
@@ -0,0 +1,516 @@
+package com.formily.store;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.formily.model.Schema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * 文件存储：每个Schema一个文件，数据同名存放在data目录下
+ * 目录布局可选平铺（schema/{id}.json）或分片（schema/ab/cd/{id}.json），扩展名随存储编码变化（.json/.smile/.cbor）；
+ * 切换布局或编码后读取会回退到其他位置，{@link #relocate} 用于在线迁移/重新编码存量文件。
+ */
+public class FileSchemaStore implements SchemaStore {
+
+    private static final Logger log = LoggerFactory.getLogger(FileSchemaStore.class);
+    private static final String FILE_GLOB = "*.{json,smile,cbor}";
+    private static final int SHARD_DEPTH = 2;
+    private static final String FORMAT_MARKER = ".format-version";
+
+    private final StorageCodecs codecs;
+    private final Path schemaDir;
+    private final Path dataDir;
+    private final StorageLayout layout;
+    private final AtomicFileWriter fileWriter;
+    private volatile int formatVersion;
+    private volatile StoreMetrics metrics = StoreMetrics.NONE;
+    private StorageWatcher watcher;
+
+    public FileSchemaStore(Path schemaDir, Path dataDir, StorageLayout layout, StorageEncoding encoding,
+                           FsyncPolicy fsync, long fsyncIntervalMillis, ObjectMapper objectMapper) throws IOException {
+        this.codecs = new StorageCodecs(encoding, objectMapper);
+        this.schemaDir = schemaDir;
+        this.dataDir = dataDir;
+        this.layout = layout;
+        // Ensure directories exist (we're persisting to filesystem, not classpath).
+        Files.createDirectories(schemaDir);
+        Files.createDirectories(dataDir);
+        for (Path dir : shardDirs(schemaDir)) {
+            AtomicFileWriter.cleanupTempFiles(dir);
+        }
+        for (Path dir : shardDirs(dataDir)) {
+            AtomicFileWriter.cleanupTempFiles(dir);
+        }
+        this.fileWriter = new AtomicFileWriter(fsync, fsyncIntervalMillis);
+        this.formatVersion = readFormatMarker();
+    }
+
+    @Override
+    public Schema get(String id) throws IOException {
+        Path file = locate(schemaDir, id);
+        if (file == null) {
+            return null;
+        }
+        return readSchemaFromFile(file);
+    }
+
+    @Override
+    public void put(Schema schema) throws IOException {
+        JsonSerializable toWrite = StoreSupport.withoutInitialValues(schema);
+        write(schemaDir, StoreMetrics.SCHEMA, schema.getId(), out -> codecs.writer().writeValue(out, toWrite));
+    }
+
+    @Override
+    public boolean delete(String id) throws IOException {
+        return deleteBoth(schemaDir, id);
+    }
+
+    @Override
+    public EntryInfo stat(String id) throws IOException {
+        return statLocated(schemaDir, id);
+    }
+
+    @Override
+    public void scan(EntryVisitor visitor) throws IOException {
+        for (Path dir : shardDirs(schemaDir)) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, FILE_GLOB)) {
+                for (Path file : files) {
+                    String id = idFromFileName(file.getFileName().toString());
+                    // Mid-migration an id may exist in several layouts/encodings; report only the copy reads resolve to.
+                    if (!file.equals(primaryPath(schemaDir, id)) && !file.equals(locate(schemaDir, id))) {
+                        continue;
+                    }
+                    EntryInfo info = statFile(id, file);
+                    if (info != null) {
+                        visitor.visit(info);
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public JsonParser openSchema(String id) throws IOException {
+        Path file = locate(schemaDir, id);
+        if (file == null) {
+            return null;
+        }
+        return codecs.factoryForExtension(extensionOf(file)).createParser(file.toFile());
+    }
+
+    @Override
+    public JsonNode getData(String id) throws IOException {
+        Path file = locate(dataDir, id);
+        if (file == null) return null;
+        byte[] content = readFile(file, StoreMetrics.DATA);
+        long start = System.nanoTime();
+        try {
+            return codecs.forExtension(extensionOf(file)).readTree(content);
+        } finally {
+            metrics.parse(StoreMetrics.DATA, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void putData(String id, JsonNode data) throws IOException {
+        write(dataDir, StoreMetrics.DATA, id, out -> codecs.writer().writeValue(out, data));
+    }
+
+    @Override
+    public boolean deleteData(String id) throws IOException {
+        return deleteBoth(dataDir, id);
+    }
+
+    @Override
+    public EntryInfo statData(String id) throws IOException {
+        return statLocated(dataDir, id);
+    }
+
+    @Override
+    public int formatVersion() {
+        return formatVersion;
+    }
+
+    /**
+     * 记录存储格式版本（写入schema目录下的标记文件）
+     * 只应在确认没有历史格式文件后调用；此后读取不再做兼容探测，手工放入的旧格式文件需重新执行迁移。
+     * @param version 格式版本
+     * @throws IOException IO异常
+     */
+    public void markFormatVersion(int version) throws IOException {
+        fileWriter.write(schemaDir.resolve(FORMAT_MARKER),
+                out -> out.write(Integer.toString(version).getBytes(StandardCharsets.US_ASCII)));
+        formatVersion = version;
+    }
+
+    /**
+     * 读取一个id的历史格式Schema（只包含value的文件，或value中内嵌了initial_values）
+     * 不受格式版本标记影响，供批量迁移使用。
+     * @param id Schema ID
+     * @return 历史格式的Schema（保留内嵌的initial_values），当前格式或不存在时返回null
+     * @throws IOException IO异常
+     */
+    public Schema readLegacy(String id) throws IOException {
+        Path file = locate(schemaDir, id);
+        if (file == null) {
+            return null;
+        }
+        ObjectMapper mapper = codecs.forExtension(extensionOf(file));
+        JsonNode root = mapper.readTree(file.toFile());
+        if (isWrapped(root)) {
+            JsonNode value = root.get("value");
+            if (value == null || !value.has(StoreSupport.INITIAL_VALUES)) {
+                return null;
+            }
+            return mapper.treeToValue(root, Schema.class);
+        }
+        Schema schema = new Schema();
+        schema.setId(id);
+        schema.setValue(root);
+        return schema;
+    }
+
+    /**
+     * 以当前格式重写历史格式的Schema，保留原文件的修改时间，避免迁移打乱按修改时间排序的列表
+     * 调用方需持有该id的写锁，并已把内嵌的initial_values迁移到数据文档。
+     * @param schema {@link #readLegacy} 返回的Schema
+     * @throws IOException IO异常
+     */
+    public void upgrade(Schema schema) throws IOException {
+        Path file = locate(schemaDir, schema.getId());
+        FileTime modified = file == null ? null : Files.getLastModifiedTime(file);
+        put(schema);
+        if (modified != null) {
+            Files.setLastModifiedTime(primaryPath(schemaDir, schema.getId()), modified);
+        }
+    }
+
+    private static boolean isWrapped(JsonNode root) {
+        if (!root.isObject()) {
+            return false;
+        }
+        Iterator<String> names = root.fieldNames();
+        while (names.hasNext()) {
+            String name = names.next();
+            if (!"id".equals(name) && !"value".equals(name)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int readFormatMarker() throws IOException {
+        try {
+            return Integer.parseInt(Files.readString(schemaDir.resolve(FORMAT_MARKER), StandardCharsets.US_ASCII).trim());
+        } catch (NoSuchFileException e) {
+            return 1;
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring unreadable storage format marker in {}", schemaDir);
+            return 1;
+        }
+    }
+
+    /**
+     * 列出不在当前布局或编码下的Schema id（迁移/重新编码的待办）
+     * @return id列表
+     * @throws IOException IO异常
+     */
+    public List<String> misplacedIds() throws IOException {
+        Set<String> ids = new LinkedHashSet<>();
+        for (Path root : List.of(schemaDir, dataDir)) {
+            for (Path dir : shardDirs(root)) {
+                try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, FILE_GLOB)) {
+                    for (Path file : files) {
+                        String id = idFromFileName(file.getFileName().toString());
+                        if (!file.equals(primaryPath(root, id))) {
+                            ids.add(id);
+                        }
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(ids);
+    }
+
+    /**
+     * 把一个id的Schema与数据文件移动到当前布局下，编码不同时按当前编码重写
+     * 调用方需持有该id的写锁；目标已存在时说明已有更新的写入，直接删除其他位置的文件。
+     * @param id Schema ID
+     * @return 是否移动或清理了文件
+     * @throws IOException IO异常
+     */
+    public boolean relocate(String id) throws IOException {
+        boolean schemaMoved = relocate(schemaDir, id);
+        boolean dataMoved = relocate(dataDir, id);
+        return schemaMoved || dataMoved;
+    }
+
+    private boolean relocate(Path root, String id) throws IOException {
+        Path to = primaryPath(root, id);
+        if (Files.exists(to)) {
+            return deleteStaleCopies(root, id);
+        }
+        Path from = locate(root, id);
+        if (from == null) {
+            return false;
+        }
+        Files.createDirectories(to.getParent());
+        if (extensionOf(from).equals(codecs.extension())) {
+            try {
+                Files.move(from, to, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(from, to);
+            }
+        } else {
+            // Re-encode as a tree so legacy value-only files keep their shape.
+            JsonNode content = codecs.forExtension(extensionOf(from)).readTree(from.toFile());
+            fileWriter.write(to, out -> codecs.writer().writeValue(out, content));
+        }
+        deleteStaleCopies(root, id);
+        return true;
+    }
+
+    private void write(Path root, String kind, String id, AtomicFileWriter.StreamWriter body) throws IOException {
+        Path target = primaryPath(root, id);
+        if (layout == StorageLayout.SHARDED) {
+            Files.createDirectories(target.getParent());
+        }
+        long start = System.nanoTime();
+        long bytes = fileWriter.write(target, body);
+        metrics.write(kind, System.nanoTime() - start, bytes);
+        // Drop stale copies in the other layout/encodings so scans and migration never see two versions.
+        deleteStaleCopies(root, id);
+    }
+
+    private boolean deleteStaleCopies(Path root, String id) throws IOException {
+        Path primary = primaryPath(root, id);
+        boolean deleted = false;
+        for (Path candidate : candidatePaths(root, id)) {
+            if (!candidate.equals(primary)) {
+                deleted |= Files.deleteIfExists(candidate);
+            }
+        }
+        return deleted;
+    }
+
+    private boolean deleteBoth(Path root, String id) throws IOException {
+        boolean deleted = false;
+        for (Path candidate : candidatePaths(root, id)) {
+            deleted |= Files.deleteIfExists(candidate);
+        }
+        return deleted;
+    }
+
+    private EntryInfo statLocated(Path root, String id) throws IOException {
+        Path file = locate(root, id);
+        return file == null ? null : statFile(id, file);
+    }
+
+    @Override
+    public void setMetrics(StoreMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public synchronized void watch(ChangeListener listener) throws IOException {
+        if (watcher != null) {
+            throw new IllegalStateException("Store is already being watched");
+        }
+        StorageWatcher w = new StorageWatcher();
+        w.registerTree(schemaDir, name -> dispatch(name, listener::schemaChanged), SHARD_DEPTH);
+        w.registerTree(dataDir, name -> dispatch(name, listener::dataChanged), SHARD_DEPTH);
+        w.start();
+        watcher = w;
+    }
+
+    private static void dispatch(String fileName, Consumer<String> target) {
+        if (fileName == null) {
+            target.accept(null);
+        } else if (StorageCodecs.extensionOf(fileName) != null) {
+            target.accept(idFromFileName(fileName));
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (watcher != null) {
+            watcher.close();
+            watcher = null;
+        }
+        fileWriter.close();
+    }
+
+    /**
+     * 从文件读取Schema
+     * @param file 文件对象
+     * @return Schema对象
+     * @throws IOException IO异常
+     */
+    private Schema readSchemaFromFile(Path file) throws IOException {
+        ObjectMapper mapper = codecs.forExtension(extensionOf(file));
+        byte[] content = readFile(file, StoreMetrics.SCHEMA);
+        long start = System.nanoTime();
+        try {
+            // New format: {"id":"...","value":{...}}
+            if (formatVersion >= FORMAT_VERSION) {
+                return mapper.readValue(content, Schema.class);
+            }
+            try {
+                return mapper.readValue(content, Schema.class);
+            } catch (MismatchedInputException ignored) {
+                // Backward compatibility: historical files stored only the value JSON.
+                log.debug("Reading legacy schema file {}", file);
+                JsonNode value = mapper.readTree(content);
+                Schema schema = new Schema();
+                schema.setId(idFromFileName(file.getFileName().toString()));
+                schema.setValue(value);
+                return schema;
+            }
+        } finally {
+            metrics.parse(StoreMetrics.SCHEMA, System.nanoTime() - start);
+        }
+    }
+
+    private byte[] readFile(Path file, String kind) throws IOException {
+        long start = System.nanoTime();
+        byte[] content = Files.readAllBytes(file);
+        metrics.read(kind, System.nanoTime() - start, content.length);
+        return content;
+    }
+
+    private static EntryInfo statFile(String id, Path file) throws IOException {
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+            return new EntryInfo(id, attrs.lastModifiedTime().toMillis(), attrs.size());
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 读取路径：优先当前布局与编码，迁移期间依次回退到其他编码、另一种布局
+     */
+    private Path locate(Path root, String id) {
+        Path primary = primaryPath(root, id);
+        if (Files.exists(primary)) {
+            return primary;
+        }
+        for (Path candidate : candidatePaths(root, id)) {
+            if (Files.exists(candidate)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    private Path primaryPath(Path root, String id) {
+        return layoutPath(layout, root, id + codecs.extension());
+    }
+
+    /**
+     * 所有可能存放该id的位置，按读取优先级排序（第一个即当前布局与编码）
+     */
+    private List<Path> candidatePaths(Path root, String id) {
+        List<String> extensions = new ArrayList<>();
+        extensions.add(codecs.extension());
+        for (String extension : StorageCodecs.EXTENSIONS) {
+            if (!extension.equals(codecs.extension())) {
+                extensions.add(extension);
+            }
+        }
+        StorageLayout other = layout == StorageLayout.SHARDED ? StorageLayout.FLAT : StorageLayout.SHARDED;
+        List<Path> paths = new ArrayList<>(extensions.size() * 2);
+        for (StorageLayout l : List.of(layout, other)) {
+            for (String extension : extensions) {
+                paths.add(layoutPath(l, root, id + extension));
+            }
+        }
+        return paths;
+    }
+
+    private static Path layoutPath(StorageLayout layout, Path root, String fileName) {
+        if (layout == StorageLayout.FLAT) {
+            return root.resolve(fileName);
+        }
+        String prefix = shardPrefix(idFromFileName(fileName));
+        return root.resolve(prefix.substring(0, 2)).resolve(prefix.substring(2, 4)).resolve(fileName);
+    }
+
+    /**
+     * 分片前缀：生成的id本身就是UUID十六进制，直接取前4位；其他id取哈希值的前4位
+     */
+    static String shardPrefix(String id) {
+        if (id.length() >= 4 && isLowerHex(id, 4)) {
+            return id.substring(0, 4);
+        }
+        int h = id.hashCode();
+        // murmur3 fmix32, so similar client-chosen ids still spread across shards
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return String.format("%08x", h).substring(0, 4);
+    }
+
+    private static boolean isLowerHex(String s, int len) {
+        for (int i = 0; i < len; i++) {
+            char c = s.charAt(i);
+            if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 根目录及其下两级分片目录（平铺布局下通常只有根目录）
+     */
+    private static List<Path> shardDirs(Path root) throws IOException {
+        List<Path> dirs = new ArrayList<>();
+        dirs.add(root);
+        try (DirectoryStream<Path> level1 = Files.newDirectoryStream(root, FileSchemaStore::isShardDir)) {
+            for (Path first : level1) {
+                try (DirectoryStream<Path> level2 = Files.newDirectoryStream(first, FileSchemaStore::isShardDir)) {
+                    level2.forEach(dirs::add);
+                }
+            }
+        }
+        return dirs;
+    }
+
+    private static boolean isShardDir(Path path) {
+        return path.getFileName().toString().length() == 2 && Files.isDirectory(path);
+    }
+
+    private static String idFromFileName(String fileName) {
+        String extension = StorageCodecs.extensionOf(fileName);
+        return extension != null ? fileName.substring(0, fileName.length() - extension.length()) : fileName;
+    }
+
+    private static String extensionOf(Path file) {
+        String extension = StorageCodecs.extensionOf(file.getFileName().toString());
+        return extension != null ? extension : StorageEncoding.JSON.extension();
+    }
+}
@@ -0,0 +1,16 @@
+package com.formily.store;
+
+/**
+ * 写入落盘策略（formily.storage.fsync）
+ */
+public enum FsyncPolicy {
+    /** fsync the file and its directory before the write call returns. */
+    ALWAYS,
+    /**
+     * Group commit: a background task fsyncs appended logs every interval. Whole-file replacements still fsync
+     * their temp file before the rename, so only the directory entry is batched and a crash keeps the old file.
+     */
+    BATCH,
+    /** Leave flushing to the OS page cache; after a power failure a replaced file may be empty or truncated. */
+    NONE
+}
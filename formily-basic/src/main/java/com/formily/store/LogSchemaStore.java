@@ -0,0 +1,516 @@
+package com.formily.store;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.formily.model.Schema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+/**
+ * 日志结构存储：所有写入（含删除墓碑）顺序追加到分段日志，内存中维护 id→记录位置 的索引
+ * <ul>
+ *     <li>启动时按顺序重放全部分段重建索引，CRC校验失败或不完整的尾部记录会被截断；</li>
+ *     <li>分段超过 segmentMaxBytes 后滚动到新分段，只读分段在垃圾比例超过阈值时由后台任务合并；</li>
+ *     <li>写入由单把锁串行化，读取使用按位置读，不阻塞写入。</li>
+ * </ul>
+ * 记录格式：[int bodyLength][int crc32(body)][body]，
+ * 其中body为 [byte type][long timestamp][short idLength][id UTF-8][payload JSON]。
+ */
+public class LogSchemaStore implements SchemaStore {
+
+    private static final Logger log = LoggerFactory.getLogger(LogSchemaStore.class);
+
+    private static final byte PUT_SCHEMA = 1;
+    private static final byte DELETE_SCHEMA = 2;
+    private static final byte PUT_DATA = 3;
+    private static final byte DELETE_DATA = 4;
+
+    private static final int HEADER_BYTES = 8;
+    private static final int BODY_FIXED_BYTES = 1 + 8 + 2;
+    private static final byte[] EMPTY = new byte[0];
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private final Path dir;
+    private final StorageCodecs codecs;
+    private final FsyncPolicy fsync;
+    private final long segmentMaxBytes;
+    private final double compactionMinDeadRatio;
+
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private final Map<String, Location> schemaIndex = new ConcurrentHashMap<>();
+    private final Map<String, Location> dataIndex = new ConcurrentHashMap<>();
+
+    private final Object writeLock = new Object();
+    private volatile Segment active;
+    private volatile StoreMetrics metrics = StoreMetrics.NONE;
+    private boolean dirty; // guarded by writeLock
+    private final ScheduledExecutorService maintenance;
+
+    public LogSchemaStore(Path dir, FsyncPolicy fsync, long fsyncIntervalMillis, long segmentMaxBytes,
+                          long compactionIntervalMillis, double compactionMinDeadRatio,
+                          StorageEncoding encoding, ObjectMapper objectMapper) throws IOException {
+        this.dir = dir;
+        // Indentation buys nothing inside a binary log; records are written compact, readers sniff the header.
+        this.codecs = new StorageCodecs(encoding == StorageEncoding.PRETTY_JSON ? StorageEncoding.JSON : encoding,
+                objectMapper);
+        this.fsync = fsync;
+        this.segmentMaxBytes = segmentMaxBytes;
+        this.compactionMinDeadRatio = compactionMinDeadRatio;
+        Files.createDirectories(dir);
+        recover();
+
+        this.maintenance = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "formily-log-store");
+            t.setDaemon(true);
+            return t;
+        });
+        if (fsync == FsyncPolicy.BATCH) {
+            long interval = Math.max(1, fsyncIntervalMillis);
+            maintenance.scheduleWithFixedDelay(this::syncQuietly, interval, interval, TimeUnit.MILLISECONDS);
+        }
+        if (compactionIntervalMillis > 0) {
+            maintenance.scheduleWithFixedDelay(this::compactQuietly,
+                    compactionIntervalMillis, compactionIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public Schema get(String id) throws IOException {
+        byte[] payload = readPayload(schemaIndex, StoreMetrics.SCHEMA, id);
+        if (payload == null) return null;
+        long start = System.nanoTime();
+        try {
+            return codecs.forContent(payload).readValue(payload, Schema.class);
+        } finally {
+            metrics.parse(StoreMetrics.SCHEMA, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void put(Schema schema) throws IOException {
+        long start = System.nanoTime();
+        byte[] payload = codecs.writer().writeValueAsBytes(StoreSupport.withoutInitialValues(schema));
+        synchronized (writeLock) {
+            index(schemaIndex, schema.getId(), append(PUT_SCHEMA, schema.getId(), payload, System.currentTimeMillis()));
+        }
+        metrics.write(StoreMetrics.SCHEMA, System.nanoTime() - start, payload.length);
+    }
+
+    @Override
+    public boolean delete(String id) throws IOException {
+        return remove(schemaIndex, DELETE_SCHEMA, id);
+    }
+
+    @Override
+    public EntryInfo stat(String id) {
+        return info(id, schemaIndex.get(id));
+    }
+
+    @Override
+    public void scan(EntryVisitor visitor) throws IOException {
+        for (Map.Entry<String, Location> e : schemaIndex.entrySet()) {
+            visitor.visit(info(e.getKey(), e.getValue()));
+        }
+    }
+
+    @Override
+    public JsonParser openSchema(String id) throws IOException {
+        byte[] payload = readPayload(schemaIndex, StoreMetrics.SCHEMA, id);
+        return payload == null ? null : codecs.forContent(payload).getFactory().createParser(payload);
+    }
+
+    @Override
+    public JsonNode getData(String id) throws IOException {
+        byte[] payload = readPayload(dataIndex, StoreMetrics.DATA, id);
+        if (payload == null) return null;
+        long start = System.nanoTime();
+        try {
+            return codecs.forContent(payload).readTree(payload);
+        } finally {
+            metrics.parse(StoreMetrics.DATA, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void putData(String id, JsonNode data) throws IOException {
+        long start = System.nanoTime();
+        byte[] payload = codecs.writer().writeValueAsBytes(data);
+        synchronized (writeLock) {
+            index(dataIndex, id, append(PUT_DATA, id, payload, System.currentTimeMillis()));
+        }
+        metrics.write(StoreMetrics.DATA, System.nanoTime() - start, payload.length);
+    }
+
+    @Override
+    public boolean deleteData(String id) throws IOException {
+        return remove(dataIndex, DELETE_DATA, id);
+    }
+
+    @Override
+    public EntryInfo statData(String id) {
+        return info(id, dataIndex.get(id));
+    }
+
+    @Override
+    public void setMetrics(StoreMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * 合并垃圾比例超过阈值的只读分段：把仍被索引引用的记录复制到活动分段后删除旧分段
+     * @throws IOException IO异常
+     */
+    public void compact() throws IOException {
+        for (Segment segment : segments.values()) {
+            if (segment == active) continue;
+            long size = segment.size.get();
+            if (size > 0 && (double) (size - segment.liveBytes.get()) / size < compactionMinDeadRatio) continue;
+            compactSegment(segment);
+        }
+    }
+
+    /**
+     * 强制把活动分段落盘
+     */
+    public void sync() throws IOException {
+        Segment toSync;
+        synchronized (writeLock) {
+            if (!dirty) return;
+            dirty = false;
+            toSync = active;
+        }
+        toSync.channel().force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        maintenance.shutdown();
+        try {
+            maintenance.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (writeLock) {
+            if (fsync != FsyncPolicy.NONE) {
+                active.channel().force(false);
+            }
+            for (Segment segment : segments.values()) {
+                segment.retire();
+            }
+        }
+    }
+
+    private void recover() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        for (Path file : files) {
+            long id = segmentId(file);
+            segments.put(id, new Segment(id, file));
+        }
+        for (Segment segment : segments.values()) {
+            replay(segment);
+        }
+        active = segments.isEmpty() ? newSegment(1) : segments.lastEntry().getValue();
+        log.info("Log store recovered {} schemas and {} data records from {} segment(s) in {}",
+                schemaIndex.size(), dataIndex.size(), segments.size(), dir);
+    }
+
+    private void replay(Segment segment) throws IOException {
+        long end = forEachRecord(segment, (type, id, timestamp, offset, recordLength, payloadOffset, payload) -> {
+            Location location = new Location(segment, offset, recordLength, payloadOffset, payload.length, timestamp);
+            switch (type) {
+                case PUT_SCHEMA -> index(schemaIndex, id, location);
+                case DELETE_SCHEMA -> unindex(schemaIndex, id);
+                case PUT_DATA -> index(dataIndex, id, location);
+                case DELETE_DATA -> unindex(dataIndex, id);
+                default -> throw new IOException("Unknown record type " + type + " in " + segment.path);
+            }
+        });
+        FileChannel channel = segment.channel();
+        if (end < channel.size()) {
+            // Torn write from a crash (or corruption): drop everything after the last intact record.
+            log.warn("Truncating {} from {} to {} bytes", segment.path, channel.size(), end);
+            channel.truncate(end);
+            channel.force(true);
+        }
+        segment.size.set(end);
+    }
+
+    private void compactSegment(Segment segment) throws IOException {
+        boolean olderSegmentsRemain = segments.firstKey() < segment.id;
+        forEachRecord(segment, (type, id, timestamp, offset, recordLength, payloadOffset, payload) -> {
+            synchronized (writeLock) {
+                switch (type) {
+                    case PUT_SCHEMA, PUT_DATA -> {
+                        Map<String, Location> index = type == PUT_SCHEMA ? schemaIndex : dataIndex;
+                        Location current = index.get(id);
+                        // Re-checked under the write lock so a concurrent newer put always wins.
+                        if (current != null && current.segment == segment && current.offset == offset) {
+                            index(index, id, append(type, id, payload, timestamp));
+                        }
+                    }
+                    case DELETE_SCHEMA, DELETE_DATA -> {
+                        Map<String, Location> index = type == DELETE_SCHEMA ? schemaIndex : dataIndex;
+                        // A tombstone only matters while an older segment may still hold a put for the id.
+                        if (olderSegmentsRemain && !index.containsKey(id)) {
+                            append(type, id, EMPTY, timestamp);
+                        }
+                    }
+                    default -> throw new IOException("Unknown record type " + type + " in " + segment.path);
+                }
+            }
+        });
+        synchronized (writeLock) {
+            // Copies must be durable before the originals disappear.
+            active.channel().force(false);
+            segments.remove(segment.id);
+        }
+        segment.retire();
+        Files.deleteIfExists(segment.path);
+        log.info("Compacted segment {}", segment.path.getFileName());
+    }
+
+    private boolean remove(Map<String, Location> index, byte tombstone, String id) throws IOException {
+        synchronized (writeLock) {
+            if (!index.containsKey(id)) {
+                return false;
+            }
+            append(tombstone, id, EMPTY, System.currentTimeMillis());
+            unindex(index, id);
+            return true;
+        }
+    }
+
+    // Caller holds writeLock (or is single-threaded recovery).
+    private void index(Map<String, Location> index, String id, Location location) {
+        location.segment.liveBytes.addAndGet(location.recordLength);
+        Location previous = index.put(id, location);
+        if (previous != null) {
+            previous.segment.liveBytes.addAndGet(-previous.recordLength);
+        }
+    }
+
+    private void unindex(Map<String, Location> index, String id) {
+        Location previous = index.remove(id);
+        if (previous != null) {
+            previous.segment.liveBytes.addAndGet(-previous.recordLength);
+        }
+    }
+
+    // Caller holds writeLock.
+    private Location append(byte type, String id, byte[] payload, long timestamp) throws IOException {
+        byte[] idBytes = id.getBytes(StandardCharsets.UTF_8);
+        if (idBytes.length > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Schema id too long");
+        }
+        int bodyLength = BODY_FIXED_BYTES + idBytes.length + payload.length;
+        int recordLength = HEADER_BYTES + bodyLength;
+        ByteBuffer buf = ByteBuffer.allocate(recordLength);
+        buf.putInt(bodyLength).putInt(0)
+                .put(type).putLong(timestamp).putShort((short) idBytes.length).put(idBytes).put(payload);
+        CRC32 crc = new CRC32();
+        crc.update(buf.array(), HEADER_BYTES, bodyLength);
+        buf.putInt(4, (int) crc.getValue());
+        buf.flip();
+
+        if (active.size.get() > 0 && active.size.get() + recordLength > segmentMaxBytes) {
+            roll();
+        }
+        Segment segment = active;
+        long offset = segment.size.get();
+        FileChannel channel = segment.channel();
+        while (buf.hasRemaining()) {
+            channel.write(buf, offset + buf.position());
+        }
+        segment.size.addAndGet(recordLength);
+        if (fsync == FsyncPolicy.ALWAYS) {
+            channel.force(false);
+        } else {
+            dirty = true;
+        }
+        return new Location(segment, offset, recordLength, HEADER_BYTES + BODY_FIXED_BYTES + idBytes.length,
+                payload.length, timestamp);
+    }
+
+    // Caller holds writeLock.
+    private void roll() throws IOException {
+        Segment sealed = active;
+        if (fsync != FsyncPolicy.NONE) {
+            sealed.channel().force(false);
+        }
+        active = newSegment(sealed.id + 1);
+    }
+
+    private Segment newSegment(long id) throws IOException {
+        Path path = dir.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX));
+        Files.createFile(path);
+        Segment segment = new Segment(id, path);
+        segments.put(id, segment);
+        return segment;
+    }
+
+    private byte[] readPayload(Map<String, Location> index, String kind, String id) throws IOException {
+        // A concurrent compaction may retire the segment between index lookup and read;
+        // by then the index already points at the copy, so simply look it up again.
+        for (int attempt = 0; attempt < 3; attempt++) {
+            Location location = index.get(id);
+            if (location == null) {
+                return null;
+            }
+            try {
+                long start = System.nanoTime();
+                byte[] payload = location.segment.read(location.offset + location.payloadOffset, location.payloadLength);
+                metrics.read(kind, System.nanoTime() - start, payload.length);
+                return payload;
+            } catch (ClosedChannelException e) {
+                if (!location.segment.retired) throw e;
+            }
+        }
+        throw new IOException("Record " + id + " moved repeatedly during compaction");
+    }
+
+    private long forEachRecord(Segment segment, RecordVisitor visitor) throws IOException {
+        long size = segment.channel().size();
+        long position = 0;
+        while (position + HEADER_BYTES <= size) {
+            ByteBuffer header = ByteBuffer.wrap(segment.read(position, HEADER_BYTES));
+            int bodyLength = header.getInt();
+            int expectedCrc = header.getInt();
+            if (bodyLength < BODY_FIXED_BYTES || position + HEADER_BYTES + bodyLength > size) {
+                break;
+            }
+            byte[] body = segment.read(position + HEADER_BYTES, bodyLength);
+            CRC32 crc = new CRC32();
+            crc.update(body);
+            if ((int) crc.getValue() != expectedCrc) {
+                break;
+            }
+            ByteBuffer buf = ByteBuffer.wrap(body);
+            byte type = buf.get();
+            long timestamp = buf.getLong();
+            int idLength = buf.getShort();
+            if (idLength < 0 || BODY_FIXED_BYTES + idLength > bodyLength) {
+                break;
+            }
+            String id = new String(body, BODY_FIXED_BYTES, idLength, StandardCharsets.UTF_8);
+            int payloadStart = BODY_FIXED_BYTES + idLength;
+            byte[] payload = new byte[bodyLength - payloadStart];
+            System.arraycopy(body, payloadStart, payload, 0, payload.length);
+            int recordLength = HEADER_BYTES + bodyLength;
+            visitor.visit(type, id, timestamp, position, recordLength, HEADER_BYTES + payloadStart, payload);
+            position += recordLength;
+        }
+        return position;
+    }
+
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (IOException e) {
+            log.error("Log store fsync failed", e);
+        }
+    }
+
+    private void compactQuietly() {
+        try {
+            compact();
+        } catch (IOException | RuntimeException e) {
+            log.error("Log store compaction failed", e);
+        }
+    }
+
+    private static EntryInfo info(String id, Location location) {
+        return location == null ? null : new EntryInfo(id, location.timestamp, location.payloadLength);
+    }
+
+    private static long segmentId(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    @FunctionalInterface
+    private interface RecordVisitor {
+        void visit(byte type, String id, long timestamp, long offset, int recordLength, int payloadOffset,
+                   byte[] payload) throws IOException;
+    }
+
+    private record Location(Segment segment, long offset, int recordLength, int payloadOffset, int payloadLength,
+                            long timestamp) {
+    }
+
+    private static final class Segment {
+        private final long id;
+        private final Path path;
+        private final AtomicLong size = new AtomicLong();
+        private final AtomicLong liveBytes = new AtomicLong();
+        private volatile FileChannel channel;
+        private volatile boolean retired;
+
+        Segment(long id, Path path) throws IOException {
+            this.id = id;
+            this.path = path;
+            this.channel = open();
+        }
+
+        private FileChannel open() throws IOException {
+            return FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        }
+
+        /**
+         * FileChannel is closed for everyone when any thread is interrupted mid-I/O; reopen unless retired.
+         */
+        FileChannel channel() throws IOException {
+            FileChannel current = channel;
+            if (current.isOpen() || retired) {
+                return current;
+            }
+            synchronized (this) {
+                if (!channel.isOpen() && !retired) {
+                    channel = open();
+                }
+                return channel;
+            }
+        }
+
+        byte[] read(long position, int length) throws IOException {
+            ByteBuffer buf = ByteBuffer.allocate(length);
+            FileChannel ch = channel();
+            while (buf.hasRemaining()) {
+                if (ch.read(buf, position + buf.position()) < 0) {
+                    throw new EOFException("Unexpected end of " + path);
+                }
+            }
+            return buf.array();
+        }
+
+        void retire() throws IOException {
+            retired = true;
+            channel.close();
+        }
+    }
+}
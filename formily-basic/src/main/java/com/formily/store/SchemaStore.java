@@ -0,0 +1,108 @@
+package com.formily.store;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.formily.model.Schema;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Schema存储抽象
+ * 每个Schema对应一份Schema文档和一份数据文档（initial_values），两者以同一个id关联。
+ * 实现需保证单个id上的读写是线程安全的；缓存、初始值生成等业务逻辑由SchemaService负责。
+ */
+public interface SchemaStore extends Closeable {
+
+    /** 当前存储格式：{id, value} 包装，且value中不内嵌initial_values */
+    int FORMAT_VERSION = 2;
+
+    /**
+     * 读取Schema
+     * @param id Schema ID
+     * @return Schema，不存在时返回null；历史格式中内嵌的initial_values原样返回
+     */
+    Schema get(String id) throws IOException;
+
+    /**
+     * 写入Schema；value.initial_values 属于数据文档，不会被持久化
+     */
+    void put(Schema schema) throws IOException;
+
+    boolean delete(String id) throws IOException;
+
+    /**
+     * Schema元信息，不解析内容
+     * @return 不存在时返回null
+     */
+    EntryInfo stat(String id) throws IOException;
+
+    default boolean exists(String id) throws IOException {
+        return stat(id) != null;
+    }
+
+    /**
+     * 遍历所有Schema的元信息，不解析内容；遍历期间的并发写入可能可见也可能不可见
+     */
+    void scan(EntryVisitor visitor) throws IOException;
+
+    /**
+     * 以流式方式打开Schema文档
+     * @return 解析器，调用方负责关闭；不存在时返回null
+     */
+    JsonParser openSchema(String id) throws IOException;
+
+    JsonNode getData(String id) throws IOException;
+
+    void putData(String id, JsonNode data) throws IOException;
+
+    boolean deleteData(String id) throws IOException;
+
+    /**
+     * 数据文档元信息
+     * @return 不存在时返回null
+     */
+    EntryInfo statData(String id) throws IOException;
+
+    /**
+     * 存储格式版本；低于 {@link #FORMAT_VERSION} 时可能存在历史格式，读取需要兼容探测
+     */
+    default int formatVersion() throws IOException {
+        return FORMAT_VERSION;
+    }
+
+    /**
+     * 接入读写耗时与字节数统计；不支持的实现可以忽略
+     */
+    default void setMetrics(StoreMetrics metrics) {
+    }
+
+    /**
+     * 订阅绕过本存储发生的修改（例如手工编辑文件）；不支持的实现可以忽略
+     */
+    default void watch(ChangeListener listener) throws IOException {
+    }
+
+    /**
+     * 存储条目的元信息
+     * @param id Schema ID
+     * @param lastModified 最后修改时间（毫秒）
+     * @param size 存储占用字节数
+     */
+    record EntryInfo(String id, long lastModified, long size) {
+    }
+
+    @FunctionalInterface
+    interface EntryVisitor {
+        void visit(EntryInfo entry) throws IOException;
+    }
+
+    /**
+     * 外部修改通知；id为null表示无法确定范围，需要整体失效
+     */
+    interface ChangeListener {
+        void schemaChanged(String id);
+
+        void dataChanged(String id);
+    }
+}
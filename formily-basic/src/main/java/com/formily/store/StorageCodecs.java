@@ -0,0 +1,113 @@
+package com.formily.store;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.cbor.CBORGenerator;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import java.util.List;
+
+/**
+ * 按存储编码选择Jackson编解码器
+ * 写入统一使用配置的编码；读取按文件扩展名或内容头部字节识别实际编码。
+ */
+final class StorageCodecs {
+
+    static final List<String> EXTENSIONS = List.of(".json", ".smile", ".cbor");
+    private static final byte[] SMILE_HEADER = {':', ')', '\n'};
+    private static final byte[] CBOR_SELF_DESCRIBE = {(byte) 0xD9, (byte) 0xD9, (byte) 0xF7};
+    private static final byte[] UTF8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+
+    private final StorageEncoding encoding;
+    private final ObjectMapper json;
+    private final ObjectMapper smile;
+    private final ObjectMapper cbor;
+    private final ObjectWriter writer;
+
+    StorageCodecs(StorageEncoding encoding, ObjectMapper json) {
+        this.encoding = encoding;
+        this.json = json;
+        this.smile = new ObjectMapper(new SmileFactory());
+        this.cbor = new ObjectMapper(CBORFactory.builder().enable(CBORGenerator.Feature.WRITE_TYPE_HEADER).build());
+        this.writer = switch (encoding) {
+            case PRETTY_JSON -> json.writerWithDefaultPrettyPrinter();
+            case JSON -> json.writer();
+            case SMILE -> smile.writer();
+            case CBOR -> cbor.writer();
+        };
+    }
+
+    StorageEncoding encoding() {
+        return encoding;
+    }
+
+    /**
+     * 按配置编码写入的ObjectWriter（线程安全，可复用）
+     */
+    ObjectWriter writer() {
+        return writer;
+    }
+
+    String extension() {
+        return encoding.extension();
+    }
+
+    ObjectMapper forExtension(String extension) {
+        return switch (extension) {
+            case ".smile" -> smile;
+            case ".cbor" -> cbor;
+            default -> json;
+        };
+    }
+
+    JsonFactory factoryForExtension(String extension) {
+        return forExtension(extension).getFactory();
+    }
+
+    /**
+     * 根据头部字节识别编码：Smile以 ":)\n" 开头；CBOR以自描述标签 D9 D9 F7 开头（本存储写入时总会带上），
+     * 或首字节为数组、映射、标签类型；其余（包括带UTF-8 BOM的文本）按JSON读取
+     */
+    ObjectMapper forContent(byte[] bytes) {
+        if (startsWith(bytes, SMILE_HEADER)) {
+            return smile;
+        }
+        if (startsWith(bytes, CBOR_SELF_DESCRIBE)) {
+            return cbor;
+        }
+        if (startsWith(bytes, UTF8_BOM)) {
+            return json;
+        }
+        if (bytes.length > 0) {
+            // Major type 4, 5 or 6: the only CBOR items a stored document can start with.
+            int major = (bytes[0] & 0xFF) >>> 5;
+            if (major >= 4 && major <= 6) {
+                return cbor;
+            }
+        }
+        return json;
+    }
+
+    private static boolean startsWith(byte[] bytes, byte[] prefix) {
+        if (bytes.length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (bytes[i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static String extensionOf(String fileName) {
+        for (String extension : EXTENSIONS) {
+            if (fileName.endsWith(extension)) {
+                return extension;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,26 @@
+package com.formily.store;
+
+/**
+ * Schema/数据文档的存储编码（formily.storage.encoding）
+ * REST接口始终返回JSON，编码只影响磁盘上的表示；读取时按扩展名或文件头识别，混合目录可以共存。
+ */
+public enum StorageEncoding {
+    /** Indented JSON, the historical format; easiest to read and diff by hand. */
+    PRETTY_JSON(".json"),
+    /** JSON without whitespace. */
+    JSON(".json"),
+    /** Jackson Smile binary JSON, starts with the ":)\n" header. */
+    SMILE(".smile"),
+    /** CBOR (RFC 8949), written with the self-describe tag 0xd9d9f7. */
+    CBOR(".cbor");
+
+    private final String extension;
+
+    StorageEncoding(String extension) {
+        this.extension = extension;
+    }
+
+    public String extension() {
+        return extension;
+    }
+}
@@ -0,0 +1,11 @@
+package com.formily.store;
+
+/**
+ * 存储引擎（formily.storage.engine）
+ */
+public enum StorageEngine {
+    /** One JSON file per schema under schema/ and per data record under data/. */
+    FILE,
+    /** Append-only segment log with an in-memory index, see {@link LogSchemaStore}. */
+    LOG
+}
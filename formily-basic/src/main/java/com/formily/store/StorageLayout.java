@@ -0,0 +1,11 @@
+package com.formily.store;
+
+/**
+ * 文件存储的目录布局（formily.storage.layout）
+ */
+public enum StorageLayout {
+    /** schema/{id}.json */
+    FLAT,
+    /** schema/ab/cd/{id}.json, where abcd is a hashed prefix of the id. */
+    SHARDED
+}
@@ -0,0 +1,121 @@
+package com.formily.store;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * 监听存储目录的文件变化
+ * 带外修改（手工编辑、git checkout、其他进程写入）也能及时让缓存失效。
+ */
+class StorageWatcher implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(StorageWatcher.class);
+
+    private final WatchService watchService;
+    private final Map<WatchKey, Registration> registrations = new ConcurrentHashMap<>();
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    StorageWatcher() throws IOException {
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.thread = new Thread(this::run, "formily-storage-watcher");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * 注册目录及其下最多maxDepth层子目录；之后新建的子目录也会自动注册
+     * @param root 目录
+     * @param listener 收到变化的文件名；事件溢出时收到null，表示需要整体失效
+     * @param maxDepth 0表示只注册root本身
+     */
+    void registerTree(Path root, Consumer<String> listener, int maxDepth) throws IOException {
+        register(root, listener, maxDepth);
+    }
+
+    private void register(Path dir, Consumer<String> listener, int depthLeft) throws IOException {
+        WatchKey key = dir.register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+        registrations.put(key, new Registration(dir, listener, depthLeft));
+        if (depthLeft > 0) {
+            try (DirectoryStream<Path> children = Files.newDirectoryStream(dir, Files::isDirectory)) {
+                for (Path child : children) {
+                    register(child, listener, depthLeft - 1);
+                }
+            }
+        }
+    }
+
+    void start() {
+        thread.start();
+    }
+
+    private void run() {
+        while (running) {
+            WatchKey key;
+            try {
+                key = watchService.take();
+            } catch (InterruptedException | ClosedWatchServiceException e) {
+                return;
+            }
+            Registration registration = registrations.get(key);
+            if (registration != null) {
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    try {
+                        dispatch(registration, event);
+                    } catch (RuntimeException | IOException e) {
+                        log.warn("Storage watch listener failed", e);
+                    }
+                }
+            }
+            if (!key.reset()) {
+                registrations.remove(key);
+            }
+        }
+    }
+
+    private void dispatch(Registration registration, WatchEvent<?> event) throws IOException {
+        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+            registration.listener.accept(null);
+            return;
+        }
+        Path child = registration.dir.resolve((Path) event.context());
+        if (registration.depthLeft > 0 && event.kind() == StandardWatchEventKinds.ENTRY_CREATE
+                && Files.isDirectory(child)) {
+            register(child, registration.listener, registration.depthLeft - 1);
+            // Files may land in the new directory before it was registered.
+            try (Stream<Path> files = Files.walk(child)) {
+                files.filter(Files::isRegularFile)
+                        .forEach(f -> registration.listener.accept(f.getFileName().toString()));
+            }
+            return;
+        }
+        registration.listener.accept(child.getFileName().toString());
+    }
+
+    private record Registration(Path dir, Consumer<String> listener, int depthLeft) {
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        watchService.close();
+    }
+}
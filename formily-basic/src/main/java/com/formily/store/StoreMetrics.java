@@ -0,0 +1,32 @@
+package com.formily.store;
+
+/**
+ * 存储层的耗时与字节数回调，由上层接入监控系统
+ * kind 为 {@link #SCHEMA} 或 {@link #DATA}；实现必须线程安全且开销足够小，回调发生在读写路径上。
+ */
+public interface StoreMetrics {
+
+    String SCHEMA = "schema";
+    String DATA = "data";
+
+    StoreMetrics NONE = new StoreMetrics() {
+    };
+
+    /**
+     * 从磁盘读取原始内容（不含解析）
+     */
+    default void read(String kind, long nanos, long bytes) {
+    }
+
+    /**
+     * 把读到的内容解析为树或对象
+     */
+    default void parse(String kind, long nanos) {
+    }
+
+    /**
+     * 写入一个文档；文件存储边编码边写入，因此包含编码耗时
+     */
+    default void write(String kind, long nanos, long bytes) {
+    }
+}
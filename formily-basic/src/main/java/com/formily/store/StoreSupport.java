@@ -0,0 +1,67 @@
+package com.formily.store;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+import com.formily.model.Schema;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * 各存储实现共用的小工具
+ */
+final class StoreSupport {
+    private StoreSupport() {}
+
+    static final String INITIAL_VALUES = "initial_values";
+
+    /**
+     * initial_values 存在数据文档中，Schema文档只保存其余部分
+     * 返回的视图在序列化时直接遍历原树并跳过 initial_values，不复制树；输出与序列化去掉该键后的Schema逐字节相同。
+     * 序列化期间调用方不得修改schema。
+     */
+    static JsonSerializable withoutInitialValues(Schema schema) {
+        return new StoredSchema(schema.getId(), schema.getValue());
+    }
+
+    private record StoredSchema(String id, JsonNode value) implements JsonSerializable {
+
+        @Override
+        public void serialize(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            // Same shape and property order as the bean serializer writes for Schema.
+            gen.writeStartObject();
+            gen.writeStringField("id", id);
+            gen.writeFieldName("value");
+            if (value != null && value.isObject() && value.has(INITIAL_VALUES)) {
+                writeFiltered(gen, serializers);
+            } else {
+                serializers.defaultSerializeValue(value, gen);
+            }
+            gen.writeEndObject();
+        }
+
+        private void writeFiltered(JsonGenerator gen, SerializerProvider serializers) throws IOException {
+            gen.writeStartObject(value);
+            Iterator<Map.Entry<String, JsonNode>> fields = value.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                if (!INITIAL_VALUES.equals(field.getKey())) {
+                    gen.writeFieldName(field.getKey());
+                    serializers.defaultSerializeValue(field.getValue(), gen);
+                }
+            }
+            gen.writeEndObject();
+        }
+
+        @Override
+        public void serializeWithType(JsonGenerator gen, SerializerProvider serializers, TypeSerializer typeSer)
+                throws IOException {
+            // Store mappers never enable default typing; the document format has no type ids.
+            serialize(gen, serializers);
+        }
+    }
+}
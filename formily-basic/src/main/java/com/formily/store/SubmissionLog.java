@@ -0,0 +1,509 @@
+package com.formily.store;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * 单个Schema的提交记录日志：目录下按起始序号命名的NDJSON分段，只追加、不改写
+ * 每行一条记录 {"seq":序号,"submittedAt":毫秒,"data":{...}}，序号从0开始连续递增，即记录在日志中的行号。
+ * 内存中为每个分段维护稀疏偏移索引（每 {@link #INDEX_INTERVAL} 条记录一个位置），按序号定位只需扫描不超过一个间隔的行。
+ * 追加由本对象的锁串行化；读取只看已提交的长度，不阻塞写入。
+ * 打开时只读扫描分段，写入通道在第一次追加时才打开，空闲关闭后可由新的实例重新打开。
+ */
+final class SubmissionLog {
+
+    private static final Logger log = LoggerFactory.getLogger(SubmissionLog.class);
+
+    static final int INDEX_INTERVAL = 128;
+    private static final String SEGMENT_SUFFIX = ".ndjson";
+    private static final int SCAN_BUFFER = 64 * 1024;
+    private static final byte NEWLINE = '\n';
+    private static final String SET_ASIDE_SUFFIX = ".corrupt";
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final Path dir;
+    private final FsyncPolicy fsync;
+    private final long segmentMaxBytes;
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+
+    // Guarded by this; both stay null until the first append.
+    private Segment active;
+    private FileChannel writer;
+    private long appendedBytes;
+    private boolean dirty;
+    private boolean closed;
+    private volatile long lastUsed = System.currentTimeMillis();
+
+    // Group commit: appenders waiting for an fsync share the one that covers their bytes.
+    private final Object syncLock = new Object();
+    private long syncedBytes; // guarded by syncLock
+
+    SubmissionLog(Path dir, FsyncPolicy fsync, long segmentMaxBytes) throws IOException {
+        this.dir = dir;
+        this.fsync = fsync;
+        this.segmentMaxBytes = segmentMaxBytes;
+        recover();
+    }
+
+    /**
+     * 下一条记录的序号，即已提交的记录总数
+     */
+    long size() {
+        Map.Entry<Long, Segment> last = segments.lastEntry();
+        return last == null ? 0 : last.getValue().baseSeq + last.getValue().count;
+    }
+
+    /**
+     * 追加一批记录，整批一次写入
+     * @param payloads 各条记录的data，紧凑JSON，不含换行
+     * @return 第一条记录的序号
+     * @throws ClosedException 日志已关闭，调用方应重新打开后再追加
+     */
+    long append(List<byte[]> payloads, long submittedAt) throws IOException {
+        long firstSeq;
+        long endBytes;
+        synchronized (this) {
+            if (closed) {
+                throw new ClosedException(dir);
+            }
+            lastUsed = System.currentTimeMillis();
+            if (active == null) {
+                active = newSegment(0);
+            }
+            FileChannel channel = writer();
+            firstSeq = active.baseSeq + active.count;
+            int length = 0;
+            byte[][] prefixes = new byte[payloads.size()][];
+            for (int i = 0; i < prefixes.length; i++) {
+                prefixes[i] = ("{\"seq\":" + (firstSeq + i) + ",\"submittedAt\":" + submittedAt + ",\"data\":")
+                        .getBytes(StandardCharsets.US_ASCII);
+                length += prefixes[i].length + payloads.get(i).length + 2;
+            }
+            if (active.size > 0 && active.size + length > segmentMaxBytes) {
+                roll();
+                channel = writer;
+                firstSeq = active.baseSeq;
+            }
+            ByteBuffer buf = ByteBuffer.allocate(length);
+            long position = active.size;
+            for (int i = 0; i < prefixes.length; i++) {
+                active.indexIfDue(active.count + i, position + buf.position());
+                buf.put(prefixes[i]).put(payloads.get(i)).put((byte) '}').put(NEWLINE);
+            }
+            buf.flip();
+            while (buf.hasRemaining()) {
+                channel.write(buf, position + buf.position());
+            }
+            // Size before count: a reader that sees the new count also sees the bytes behind it.
+            active.size = position + length;
+            active.count += payloads.size();
+            appendedBytes += length;
+            endBytes = appendedBytes;
+            dirty = true;
+        }
+        if (fsync == FsyncPolicy.ALWAYS) {
+            syncTo(endBytes);
+        }
+        return firstSeq;
+    }
+
+    /**
+     * 把已追加的内容落盘（批量fsync时由后台任务调用）
+     */
+    void sync() throws IOException {
+        long target;
+        synchronized (this) {
+            if (!dirty) return;
+            target = appendedBytes;
+        }
+        syncTo(target);
+    }
+
+    private void syncTo(long endBytes) throws IOException {
+        synchronized (syncLock) {
+            while (syncedBytes < endBytes) {
+                long target;
+                FileChannel channel;
+                synchronized (this) {
+                    if (closed) {
+                        // close() forced whatever was appended before it.
+                        return;
+                    }
+                    target = appendedBytes;
+                    channel = writer();
+                    dirty = false;
+                }
+                try {
+                    channel.force(false);
+                    syncedBytes = target;
+                } catch (ClosedByInterruptException e) {
+                    // This thread was interrupted: give up rather than retry; the next sync reopens the channel.
+                    synchronized (this) {
+                        dirty = true;
+                    }
+                    throw e;
+                } catch (ClosedChannelException e) {
+                    // Rolled under us (roll() forced it), or closed by another thread's interrupt; retry.
+                }
+            }
+        }
+    }
+
+    /**
+     * 读取从序号from开始的最多limit条记录
+     * @param visitor 每条记录一行，不含换行符
+     * @return 下一条未读记录的序号
+     */
+    long read(long from, int limit, LineVisitor visitor) throws IOException {
+        lastUsed = System.currentTimeMillis();
+        long seq = from;
+        long end = Math.min(size(), from + limit);
+        while (seq < end) {
+            Map.Entry<Long, Segment> entry = segments.floorEntry(seq);
+            if (entry == null) {
+                throw new IllegalArgumentException("offset out of range: " + from);
+            }
+            Segment segment = entry.getValue();
+            long segmentEnd = Math.min(end, segment.baseSeq + segment.count);
+            try (FileChannel channel = FileChannel.open(segment.path, StandardOpenOption.READ)) {
+                long[] cursor = {seq};
+                scan(channel, segment.positionOf(seq, channel), segment.size, line -> {
+                    if (cursor[0] >= segmentEnd) {
+                        return false;
+                    }
+                    visitor.visit(line);
+                    cursor[0]++;
+                    return cursor[0] < segmentEnd;
+                });
+                seq = cursor[0];
+            }
+            if (seq < segmentEnd) {
+                throw new IOException("Submission segment " + segment.path + " is shorter than its index");
+            }
+        }
+        return end;
+    }
+
+    /**
+     * 把从序号from开始、截至调用时已提交的全部记录原样写出（NDJSON），定位后按分段整块传输
+     * @return 下一条未写出记录的序号
+     */
+    long transferTo(long from, OutputStream out) throws IOException {
+        lastUsed = System.currentTimeMillis();
+        long end;
+        Segment tail;
+        long tailSize;
+        synchronized (this) {
+            // The record count and the byte length of the segment still being appended to, taken together.
+            end = size();
+            tail = active;
+            tailSize = tail == null ? 0 : tail.size;
+        }
+        if (from >= end) {
+            return end;
+        }
+        WritableByteChannel target = Channels.newChannel(out);
+        for (Segment segment : segments.tailMap(segments.floorKey(from)).values()) {
+            // Every segment before the snapshot's active one was sealed, so its size is final.
+            long committed = segment == tail ? tailSize : segment.size;
+            long last = Math.min(segment.baseSeq + segment.count, end);
+            try (FileChannel channel = FileChannel.open(segment.path, StandardOpenOption.READ)) {
+                long position = segment.baseSeq <= from ? segment.positionOf(from, channel) : 0;
+                while (position < committed) {
+                    position += channel.transferTo(position, committed - position, target);
+                }
+            }
+            if (last >= end) {
+                return last;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * 自lastUsed以来未被访问时关闭
+     * @param cutoff 早于该时间（毫秒）的最后一次访问视为空闲
+     * @return 是否已关闭
+     */
+    synchronized boolean closeIfIdle(long cutoff) throws IOException {
+        if (lastUsed >= cutoff) {
+            return false;
+        }
+        close();
+        return true;
+    }
+
+    synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (writer == null) {
+            return;
+        }
+        try {
+            if (fsync != FsyncPolicy.NONE && dirty) {
+                writer().force(false);
+                dirty = false;
+            }
+        } finally {
+            writer.close();
+        }
+    }
+
+    private void recover() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*" + SEGMENT_SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        for (Path file : files) {
+            String name = file.getFileName().toString();
+            long baseSeq = Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+            segments.put(baseSeq, new Segment(baseSeq, file));
+        }
+        Segment previous = null;
+        boolean damaged = false;
+        for (Iterator<Segment> it = segments.values().iterator(); it.hasNext(); ) {
+            Segment segment = it.next();
+            if (damaged || (previous != null && segment.baseSeq != previous.baseSeq + previous.count)) {
+                // Sequence numbers after a gap would not match their line numbers; keep the file for inspection.
+                Path aside = segment.path.resolveSibling(segment.path.getFileName() + SET_ASIDE_SUFFIX);
+                log.warn("Moving submission segment {} aside to {}", segment.path, aside);
+                Files.move(segment.path, aside, StandardCopyOption.REPLACE_EXISTING);
+                it.remove();
+                damaged = true;
+                continue;
+            }
+            long length;
+            long[] valid = {0};
+            boolean[] rejected = {false};
+            try (FileChannel channel = FileChannel.open(segment.path, StandardOpenOption.READ)) {
+                length = channel.size();
+                scan(channel, 0, length, line -> {
+                    if (!isRecord(line.bytes(), segment.baseSeq + segment.count)) {
+                        rejected[0] = true;
+                        return false;
+                    }
+                    segment.indexIfDue(segment.count, line.position());
+                    segment.count++;
+                    valid[0] = line.position() + line.bytes().length + 1;
+                    return true;
+                });
+            }
+            if (valid[0] < length) {
+                // A torn write from a crash, or a line that is not the record expected here.
+                log.warn("Truncating submission segment {} from {} to {} bytes{}", segment.path, length, valid[0],
+                        rejected[0] ? " at an invalid record" : "");
+                try (FileChannel channel = FileChannel.open(segment.path, StandardOpenOption.WRITE)) {
+                    channel.truncate(valid[0]);
+                    channel.force(true);
+                }
+                damaged = rejected[0];
+            }
+            segment.size = valid[0];
+            previous = segment;
+        }
+        active = previous;
+    }
+
+    /**
+     * 是否为一条完整的记录，且序号为expectedSeq
+     */
+    private static boolean isRecord(byte[] line, long expectedSeq) throws IOException {
+        try (JsonParser parser = JSON.createParser(line)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT
+                    || parser.nextToken() != JsonToken.FIELD_NAME || !"seq".equals(parser.currentName())
+                    || parser.nextToken() != JsonToken.VALUE_NUMBER_INT || parser.getLongValue() != expectedSeq) {
+                return false;
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_OBJECT) {
+                if (token == null) {
+                    return false;
+                }
+                parser.skipChildren();
+            }
+            return parser.nextToken() == null;
+        } catch (JsonProcessingException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 当前分段的写入通道；FileChannel在任一线程I/O中被中断时会对所有线程关闭，此时重新打开
+     */
+    // Caller holds this.
+    private FileChannel writer() throws IOException {
+        if (writer == null || !writer.isOpen()) {
+            writer = FileChannel.open(active.path, StandardOpenOption.WRITE);
+        }
+        return writer;
+    }
+
+    // Caller holds this.
+    private void roll() throws IOException {
+        if (fsync != FsyncPolicy.NONE) {
+            writer.force(false);
+        }
+        writer.close();
+        active = newSegment(active.baseSeq + active.count);
+        writer = FileChannel.open(active.path, StandardOpenOption.WRITE);
+    }
+
+    private Segment newSegment(long baseSeq) throws IOException {
+        Path path = dir.resolve(String.format("%020d%s", baseSeq, SEGMENT_SUFFIX));
+        Files.createFile(path);
+        Segment segment = new Segment(baseSeq, path);
+        segments.put(baseSeq, segment);
+        return segment;
+    }
+
+    /**
+     * 从start开始按行扫描到end
+     * @return 最后一个完整行之后的位置
+     */
+    private static long scan(FileChannel channel, long start, long end, LineHandler handler) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(SCAN_BUFFER);
+        byte[] carry = new byte[0];
+        long position = start;
+        long lineStart = start;
+        while (position < end) {
+            buf.clear();
+            buf.limit((int) Math.min(buf.capacity(), end - position));
+            int read = channel.read(buf, position);
+            if (read < 0) {
+                break;
+            }
+            byte[] bytes = buf.array();
+            int from = 0;
+            for (int i = 0; i < read; i++) {
+                if (bytes[i] != NEWLINE) {
+                    continue;
+                }
+                byte[] line;
+                if (carry.length > 0) {
+                    line = Arrays.copyOf(carry, carry.length + i - from);
+                    System.arraycopy(bytes, from, line, carry.length, i - from);
+                    carry = new byte[0];
+                } else {
+                    line = Arrays.copyOfRange(bytes, from, i);
+                }
+                if (!handler.handle(new Line(lineStart, line))) {
+                    return position + i + 1;
+                }
+                from = i + 1;
+                lineStart = position + i + 1;
+            }
+            if (from < read) {
+                byte[] rest = Arrays.copyOf(carry, carry.length + read - from);
+                System.arraycopy(bytes, from, rest, carry.length, read - from);
+                carry = rest;
+            }
+            position += read;
+        }
+        return lineStart;
+    }
+
+    @FunctionalInterface
+    interface LineVisitor {
+        void visit(Line line) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface LineHandler {
+        boolean handle(Line line) throws IOException;
+    }
+
+    /**
+     * @param position 行首在分段中的位置
+     * @param bytes 行内容（不含换行）
+     */
+    record Line(long position, byte[] bytes) {
+    }
+
+    /**
+     * 向已关闭（空闲关闭或随Schema删除释放）的日志追加
+     */
+    static final class ClosedException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        ClosedException(Path dir) {
+            super("Submission log " + dir + " is closed");
+        }
+    }
+
+    private static final class Segment {
+        private final long baseSeq;
+        private final Path path;
+        // Written under the log's lock; size is published before count.
+        private volatile long size;
+        private volatile long count;
+        // Position of every INDEX_INTERVAL-th record; readers only look below count.
+        private volatile long[] index = new long[16];
+
+        Segment(long baseSeq, Path path) {
+            this.baseSeq = baseSeq;
+            this.path = path;
+        }
+
+        void indexIfDue(long local, long position) {
+            if (local % INDEX_INTERVAL != 0) {
+                return;
+            }
+            int slot = (int) (local / INDEX_INTERVAL);
+            long[] current = index;
+            if (slot >= current.length) {
+                current = Arrays.copyOf(current, current.length * 2);
+            }
+            current[slot] = position;
+            index = current;
+        }
+
+        /**
+         * 序号seq所在行的起始位置：从最近的索引点向后最多扫描 INDEX_INTERVAL-1 行
+         */
+        long positionOf(long seq, FileChannel channel) throws IOException {
+            long local = seq - baseSeq;
+            long position = index[(int) (local / INDEX_INTERVAL)];
+            long skip = local % INDEX_INTERVAL;
+            if (skip == 0) {
+                return position;
+            }
+            long[] found = {position};
+            long[] seen = {0};
+            scan(channel, position, size, line -> {
+                if (seen[0]++ == skip) {
+                    found[0] = line.position();
+                    return false;
+                }
+                return true;
+            });
+            return found[0];
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.formily.store;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.formily.model.SubmissionPage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 表单提交记录存储：每个Schema一个目录（submissions/{id}/），其中为只追加的NDJSON分段
+ * <ul>
+ *     <li>记录一旦写入不再改写，分段超过 segmentMaxBytes 后滚动，不做合并；</li>
+ *     <li>某个Schema的日志在首次访问时打开，扫描分段重建偏移索引，并截断崩溃留下的不完整尾行或序号不符的记录；</li>
+ *     <li>只读访问不创建目录与写入通道；超过 idleCloseMillis 未访问的日志被关闭并移出内存，下次访问时重新打开；</li>
+ *     <li>fsync=always 时并发提交共享同一次fsync，batch 时由后台任务按间隔落盘。</li>
+ * </ul>
+ */
+public class SubmissionStore implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(SubmissionStore.class);
+
+    private final Path dir;
+    private final FsyncPolicy fsync;
+    private final long segmentMaxBytes;
+    private final long idleCloseMillis;
+    private final ObjectMapper objectMapper;
+    private final Map<String, SubmissionLog> logs = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService maintenance;
+
+    /**
+     * @param idleCloseMillis 日志多久未访问后关闭，0表示不关闭
+     */
+    public SubmissionStore(Path dir, FsyncPolicy fsync, long fsyncIntervalMillis, long segmentMaxBytes,
+                           long idleCloseMillis, ObjectMapper objectMapper) throws IOException {
+        this.dir = dir.toAbsolutePath().normalize();
+        this.fsync = fsync;
+        this.segmentMaxBytes = segmentMaxBytes;
+        this.idleCloseMillis = idleCloseMillis;
+        this.objectMapper = objectMapper;
+        Files.createDirectories(this.dir);
+        if (fsync == FsyncPolicy.BATCH || idleCloseMillis > 0) {
+            this.maintenance = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "formily-submissions");
+                t.setDaemon(true);
+                return t;
+            });
+            if (fsync == FsyncPolicy.BATCH) {
+                long interval = Math.max(1, fsyncIntervalMillis);
+                maintenance.scheduleWithFixedDelay(this::syncQuietly, interval, interval, TimeUnit.MILLISECONDS);
+            }
+            if (idleCloseMillis > 0) {
+                maintenance.scheduleWithFixedDelay(this::closeIdle, idleCloseMillis, idleCloseMillis,
+                        TimeUnit.MILLISECONDS);
+            }
+        } else {
+            this.maintenance = null;
+        }
+    }
+
+    /**
+     * 追加一批提交记录
+     * @param data 各条记录的表单数据
+     * @return 第一条记录的序号
+     */
+    public long append(String schemaId, List<JsonNode> data) throws IOException {
+        // Serialize outside the log's lock; only the copy into the file is serialized.
+        List<byte[]> payloads = new ArrayList<>(data.size());
+        for (JsonNode node : data) {
+            payloads.add(objectMapper.writeValueAsBytes(node));
+        }
+        long submittedAt = System.currentTimeMillis();
+        while (true) {
+            SubmissionLog submissions = logFor(schemaId, true);
+            try {
+                return submissions.append(payloads, submittedAt);
+            } catch (SubmissionLog.ClosedException e) {
+                // Closed as idle or released between the lookup and the append; open it again.
+                logs.remove(schemaId, submissions);
+            }
+        }
+    }
+
+    /**
+     * 读取从序号from开始的最多limit条记录
+     */
+    public SubmissionPage read(String schemaId, long from, int limit) throws IOException {
+        SubmissionLog submissions = logFor(schemaId, false);
+        if (submissions == null) {
+            return new SubmissionPage(List.of(), 0, 0);
+        }
+        List<JsonNode> items = new ArrayList<>(Math.min(limit, 256));
+        long next = submissions.read(from, limit, line -> items.add(objectMapper.readTree(line.bytes())));
+        return new SubmissionPage(items, submissions.size(), next);
+    }
+
+    /**
+     * 把从序号from开始的全部已提交记录原样写出为NDJSON
+     * @return 写出的最后一条记录之后的序号
+     */
+    public long copyTo(String schemaId, long from, OutputStream out) throws IOException {
+        SubmissionLog submissions = logFor(schemaId, false);
+        return submissions == null ? 0 : submissions.transferTo(from, out);
+    }
+
+    public long count(String schemaId) throws IOException {
+        SubmissionLog submissions = logFor(schemaId, false);
+        return submissions == null ? 0 : submissions.size();
+    }
+
+    /**
+     * 关闭并移出某个Schema的日志（如Schema被删除时），记录文件保留在磁盘上
+     */
+    public void release(String schemaId) throws IOException {
+        SubmissionLog submissions = logs.remove(schemaId);
+        if (submissions != null) {
+            submissions.close();
+        }
+    }
+
+    /**
+     * 把所有已追加的记录落盘
+     */
+    public void sync() throws IOException {
+        for (SubmissionLog submissions : logs.values()) {
+            submissions.sync();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (maintenance != null) {
+            maintenance.shutdown();
+            try {
+                maintenance.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        for (SubmissionLog submissions : logs.values()) {
+            submissions.close();
+        }
+    }
+
+    /**
+     * @param create 目录不存在时是否创建；为false时返回null
+     */
+    private SubmissionLog logFor(String schemaId, boolean create) throws IOException {
+        SubmissionLog existing = logs.get(schemaId);
+        if (existing != null) {
+            return existing;
+        }
+        Path logDir = dir.resolve(schemaId).normalize();
+        if (!dir.equals(logDir.getParent())) {
+            throw new IllegalArgumentException("Invalid schema id: " + schemaId);
+        }
+        if (create) {
+            Files.createDirectories(logDir);
+        } else if (!Files.isDirectory(logDir)) {
+            return null;
+        }
+        try {
+            return logs.computeIfAbsent(schemaId, id -> {
+                try {
+                    return new SubmissionLog(logDir, fsync, segmentMaxBytes);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void closeIdle() {
+        long cutoff = System.currentTimeMillis() - idleCloseMillis;
+        for (String schemaId : logs.keySet()) {
+            // Removed in the same step, so no lookup can hand out the log once it is closed.
+            logs.computeIfPresent(schemaId, (id, submissions) -> {
+                try {
+                    return submissions.closeIfIdle(cutoff) ? null : submissions;
+                } catch (IOException e) {
+                    log.warn("Failed to close idle submission log {}", id, e);
+                    return null;
+                }
+            });
+        }
+    }
+
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (IOException e) {
+            log.error("Submission store fsync failed", e);
+        }
+    }
+}
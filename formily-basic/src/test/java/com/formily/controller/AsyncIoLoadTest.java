@@ -0,0 +1,167 @@
+package com.formily.controller;
+
+import com.formily.FormilyBasicApplication;
+import com.formily.config.StorageProperties;
+import com.formily.model.Schema;
+import com.formily.model.SchemaVersion;
+import com.formily.service.SchemaService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 慢磁盘下的延迟对比：少量Tomcat线程 + 每次读取阻塞的存储，测量同时到达的轻量请求的p99
+ * 运行：mvn test -Dtest=AsyncIoLoadTest -Dformily.loadTest=true
+ */
+@EnabledIfSystemProperty(named = "formily.loadTest", matches = "true")
+class AsyncIoLoadTest {
+
+    private static final int TOMCAT_THREADS = 8;
+    private static final long DISK_LATENCY_MILLIS = 50;
+    private static final int SLOW_CLIENTS = 32;
+    private static final int FAST_CLIENTS = 4;
+    private static final long RUN_MILLIS = 5_000;
+
+    private String previousUserDir;
+
+    @AfterEach
+    void restoreUserDir() {
+        if (previousUserDir != null) {
+            System.setProperty("user.dir", previousUserDir);
+        }
+    }
+
+    @Test
+    void asyncModeKeepsServletThreadsFreeUnderDiskContention(@TempDir Path tmp) throws Exception {
+        previousUserDir = System.getProperty("user.dir");
+        System.setProperty("user.dir", tmp.toString());
+        Files.createDirectories(tmp.resolve("src/main/resources"));
+
+        Result blocking = measure(false);
+        Result async = measure(true);
+        System.out.printf("blocking: %s%nasync:    %s%n", blocking, async);
+
+        assertTrue(async.fastP99() < blocking.fastP99(),
+                "async p99 " + async.fastP99() + "ms should beat blocking p99 " + blocking.fastP99() + "ms");
+    }
+
+    private Result measure(boolean asyncEnabled) throws Exception {
+        try (ConfigurableApplicationContext ctx = new SpringApplicationBuilder(
+                FormilyBasicApplication.class, SlowDisk.class).run(
+                "--server.port=0",
+                "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                "--server.tomcat.threads.min-spare=" + TOMCAT_THREADS,
+                "--formily.storage.cache.watch-enabled=false",
+                "--formily.async.enabled=" + asyncEnabled,
+                "--formily.async.max-concurrency=" + TOMCAT_THREADS,
+                "--logging.level.root=warn")) {
+            int port = ((WebServerApplicationContext) ctx).getWebServer().getPort();
+            return drive("http://localhost:" + port + "/formily/schema");
+        }
+    }
+
+    private static Result drive(String base) throws Exception {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpRequest slow = HttpRequest.newBuilder(URI.create(base + "/slow")).build();
+        HttpRequest fast = HttpRequest.newBuilder(URI.create(base + "/cache/stats")).build();
+        List<Long> slowLatencies = Collections.synchronizedList(new ArrayList<>());
+        List<Long> fastLatencies = Collections.synchronizedList(new ArrayList<>());
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        ExecutorService clients = Executors.newFixedThreadPool(SLOW_CLIENTS + FAST_CLIENTS);
+        for (int i = 0; i < SLOW_CLIENTS; i++) {
+            clients.submit(() -> loop(client, slow, running, slowLatencies));
+        }
+        // Let the slow requests occupy the server before sampling.
+        Thread.sleep(500);
+        for (int i = 0; i < FAST_CLIENTS; i++) {
+            clients.submit(() -> loop(client, fast, running, fastLatencies));
+        }
+        Thread.sleep(RUN_MILLIS);
+        running.set(false);
+        clients.shutdown();
+        clients.awaitTermination(30, TimeUnit.SECONDS);
+        return new Result(p99(fastLatencies), fastLatencies.size(), p99(slowLatencies), slowLatencies.size());
+    }
+
+    private static Void loop(HttpClient client, HttpRequest request, AtomicBoolean running, List<Long> latencies)
+            throws Exception {
+        while (running.get()) {
+            long start = System.nanoTime();
+            client.send(request, HttpResponse.BodyHandlers.discarding());
+            latencies.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+        return null;
+    }
+
+    private static long p99(List<Long> latencies) {
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        return sorted.isEmpty() ? -1 : sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1);
+    }
+
+    private record Result(long fastP99, int fastCount, long slowP99, int slowCount) {
+        @Override
+        public String toString() {
+            return String.format("fast p99=%dms (n=%d), slow p99=%dms (n=%d)", fastP99, fastCount, slowP99, slowCount);
+        }
+    }
+
+    /**
+     * 每次读取都阻塞固定时间的SchemaService，模拟争用中的磁盘
+     */
+    @TestConfiguration
+    static class SlowDisk {
+        @Bean
+        @Primary
+        SchemaService slowSchemaService(StorageProperties properties) {
+            return new SchemaService(properties) {
+                @Override
+                public SchemaVersion getSchemaVersion(String id) throws IOException {
+                    stall();
+                    return new SchemaVersion(id, 0);
+                }
+
+                @Override
+                public Schema getSchemaById(String id) throws IOException {
+                    Schema schema = new Schema();
+                    schema.setId(id);
+                    return schema;
+                }
+            };
+        }
+
+        private static void stall() throws IOException {
+            try {
+                Thread.sleep(DISK_LATENCY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+        }
+    }
+}
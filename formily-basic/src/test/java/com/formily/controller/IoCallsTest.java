@@ -0,0 +1,68 @@
+package com.formily.controller;
+
+import com.formily.config.AsyncProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IoCallsTest {
+
+    private static final long TIMEOUT_MILLIS = 50;
+
+    private final AtomicInteger commits = new AtomicInteger();
+    private IoCalls io;
+
+    private IoCalls asyncIo() {
+        AsyncProperties properties = new AsyncProperties();
+        properties.setEnabled(true);
+        properties.setTimeoutMillis(TIMEOUT_MILLIS);
+        io = new IoCalls(properties);
+        return io;
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (io != null) {
+            io.close();
+        }
+    }
+
+    private ResponseEntity<String> slowCommit() {
+        try {
+            Thread.sleep(TIMEOUT_MILLIS * 6);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        commits.incrementAndGet();
+        return ResponseEntity.status(HttpStatus.CREATED).body("created");
+    }
+
+    @Test
+    void slowWriteReportsItsOutcomeInsteadOfARetryableTimeout() throws Exception {
+        IoCalls io = asyncIo();
+
+        ResponseEntity<String> written = io.write(this::slowCommit).get(5, TimeUnit.SECONDS);
+
+        assertEquals(HttpStatus.CREATED, written.getStatusCode());
+        assertFalse(written.getHeaders().containsKey("Retry-After"));
+        // The client saw the write succeed, so it has no reason to send it again.
+        assertEquals(1, commits.get());
+    }
+
+    @Test
+    void slowReadTimesOutWith503() throws Exception {
+        IoCalls io = asyncIo();
+
+        ResponseEntity<String> read = io.run(() -> ResponseEntity.ok(slowCommit().getBody()))
+                .get(5, TimeUnit.SECONDS);
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, read.getStatusCode());
+        assertEquals("1", read.getHeaders().getFirst("Retry-After"));
+    }
+}
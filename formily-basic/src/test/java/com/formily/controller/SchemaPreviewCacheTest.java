@@ -0,0 +1,59 @@
+package com.formily.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.formily.config.PreviewProperties;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaPreviewCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void render_reusesHtmlForEqualContentFromBothVariants() throws Exception {
+        SchemaPreviewCache cache = new SchemaPreviewCache(new PreviewProperties());
+        String json = "{\"schema\":{\"properties\":{\"name\":{\"title\":\"Name\",\"x-component\":\"Input\"}}}}";
+        JsonNode value = objectMapper.readTree(json);
+        JsonNode same = objectMapper.readTree(json.replace(":", " : "));
+        String hash = cache.hash(value);
+        assertEquals(hash, cache.hash(same));
+
+        StringWriter streamed = new StringWriter();
+        cache.render(hash, value, streamed);
+        assertEquals(SchemaPreviewRenderer.render(value), streamed.toString());
+        assertEquals(streamed.toString(), cache.render(cache.hash(same), same));
+
+        assertEquals(1, cache.stats().hits());
+        assertEquals(1, cache.stats().misses());
+    }
+
+    @Test
+    void render_reorderedPropertiesAreNotServedTheCachedPreview() throws Exception {
+        SchemaPreviewCache cache = new SchemaPreviewCache(new PreviewProperties());
+        JsonNode value = objectMapper.readTree("""
+                {"schema":{"properties":{"name":{"title":"Name"},"age":{"title":"Age"}}}}""");
+        JsonNode reordered = objectMapper.readTree("""
+                {"schema":{"properties":{"age":{"title":"Age"},"name":{"title":"Name"}}}}""");
+
+        String html = cache.render(cache.hash(value), value);
+        String reorderedHtml = cache.render(cache.hash(reordered), reordered);
+
+        assertNotEquals(cache.hash(value), cache.hash(reordered));
+        assertNotEquals(html, reorderedHtml);
+        assertEquals(SchemaPreviewRenderer.render(reordered), reorderedHtml);
+        assertEquals(0, cache.stats().hits());
+    }
+
+    @Test
+    void etagMatching_handlesListsWeakTagsAndWildcard() {
+        String etag = ETags.quote("abc");
+        assertTrue(ETags.matches("\"x\", W/\"abc\"", etag));
+        assertTrue(ETags.matches("*", etag));
+        assertFalse(ETags.matches("\"abcd\"", etag));
+        assertFalse(ETags.matches(null, etag));
+    }
+}
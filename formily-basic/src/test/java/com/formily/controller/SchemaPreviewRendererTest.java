@@ -0,0 +1,42 @@
+package com.formily.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaPreviewRendererTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void escapeHtml_escapesAllSpecialCharactersInOnePass() throws Exception {
+        StringBuilder out = new StringBuilder();
+        SchemaPreviewRenderer.escapeHtml("a&b<c>d\"e'f", out);
+        assertEquals("a&amp;b&lt;c&gt;d&quot;e&#39;f", out.toString());
+    }
+
+    @Test
+    void render_streamsRegisteredComponentsAndFallsBackToJson() throws Exception {
+        JsonNode value = objectMapper.readTree("{\"schema\":{\"properties\":{"
+                + "\"card\":{\"x-component\":\"Card\",\"x-component-props\":{\"header\":\"H\",\"style\":{\"marginTop\":\"4px\"}},"
+                + "\"properties\":{\"name\":{\"title\":\"<Name>\",\"x-component\":\"Input\"},"
+                + "\"kind\":{\"x-component\":\"Select\",\"enum\":[{\"label\":\"A\",\"value\":\"a\"},\"b\"]}}},"
+                + "\"other\":{\"x-component\":\"Unknown\"}}},"
+                + "\"initial_values\":{\"name\":\"Tom & Jerry\",\"kind\":\"b\"}}");
+
+        StringWriter writer = new StringWriter();
+        SchemaPreviewRenderer.render(value, writer);
+        String html = writer.toString();
+
+        assertEquals(SchemaPreviewRenderer.render(value), html);
+        assertTrue(html.contains("<div class='fp-item fp-card' style='margin-top:4px;'><div class='fp-card-h'>H</div>"));
+        assertTrue(html.contains("<label class='fp-label'>&lt;Name&gt;</label>"
+                + "<input type='text' name='name' value='Tom &amp; Jerry' placeholder='' />"));
+        assertTrue(html.contains("<option value='a'>A</option><option value='b' selected>b</option>"));
+        assertTrue(html.contains("<pre>{&quot;x-component&quot;:&quot;Unknown&quot;}</pre>"));
+    }
+}
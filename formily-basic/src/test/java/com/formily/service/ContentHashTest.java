@@ -0,0 +1,25 @@
+package com.formily.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentHashTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void of_ignoresWhitespaceButNotKeyOrderOrNumberFormatting() throws Exception {
+        String a = ContentHash.of(objectMapper.readTree("{\"a\":1,\"b\":{\"x\":[1,\"2\"],\"y\":true}}"));
+        String b = ContentHash.of(objectMapper.readTree("{ \"a\" : 1, \"b\" : {\"x\":[1, \"2\"], \"y\":true} }"));
+
+        assertEquals(32, a.length());
+        assertEquals(a, b);
+        assertNotEquals(a, ContentHash.of(objectMapper.readTree("{\"b\":{\"x\":[1,\"2\"],\"y\":true},\"a\":1}")));
+        assertNotEquals(a, ContentHash.of(objectMapper.readTree("{\"a\":1,\"b\":{\"x\":[1.0,\"2\"],\"y\":true}}")));
+        assertNotEquals(a, ContentHash.of(objectMapper.readTree("{\"a\":1,\"b\":{\"x\":[1,2],\"y\":true}}")));
+        assertNotEquals(ContentHash.of(objectMapper.readTree("[\"ab\",\"c\"]")),
+                ContentHash.of(objectMapper.readTree("[\"a\",\"bc\"]")));
+    }
+}
@@ -0,0 +1,59 @@
+package com.formily.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InitialValuesPlanTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void populate_flattensNestedCardsAndTabs_andKeepsExistingValues() throws Exception {
+        JsonNode schema = objectMapper.readTree("""
+                {"type":"object","properties":{
+                  "card":{"type":"void","x-component":"Card","properties":{
+                    "tabs":{"type":"void","x-component":"Tabs",
+                      "x-component-props":{"panes":[{"name":"p1"},{"name":"p2"}]},
+                      "properties":{
+                        "host":{"type":"string","x-component":"Input"},
+                        "port":{"type":"number","x-component":"NumberPicker"},
+                        "on":{"type":"boolean","x-component":"Switch"},
+                        "mode":{"type":"string","enum":[{"label":"A","value":1}]}}}}},
+                  "at":{"type":"string","x-component":"DateTimePicker"}}}
+                """);
+        InitialValuesPlan plan = InitialValuesPlan.compile(schema);
+        ObjectNode out = objectMapper.createObjectNode().put("host", "kept").put("port", " ");
+
+        plan.populate(out, RandomSource.seeded(7));
+
+        assertEquals(6, plan.size());
+        assertTrue(out.get("tabs").asText().matches("p[12]"));
+        assertEquals("kept", out.get("host").asText());
+        int port = out.get("port").asInt();
+        assertTrue(port >= 1 && port <= 100);
+        assertTrue(out.get("on").isBoolean());
+        assertEquals(1L, out.get("mode").longValue());
+        assertTrue(out.get("at").asText().startsWith("2024-01"));
+        assertFalse(out.has("card"));
+    }
+
+    @Test
+    void sameSeedGivesSameValues() throws Exception {
+        JsonNode schema = objectMapper.readTree("""
+                {"properties":{"a":{"type":"string"},"b":{"enum":["x","y","z"]},"c":{"type":"integer"}}}
+                """);
+        InitialValuesPlan plan = InitialValuesPlan.compile(schema);
+        ObjectNode first = objectMapper.createObjectNode();
+        ObjectNode second = objectMapper.createObjectNode();
+
+        plan.populate(first, RandomSource.seeded(99));
+        plan.populate(second, RandomSource.seeded(99));
+
+        assertEquals(first, second);
+        assertTrue(first.get("a").asText().matches("a_[A-Za-z0-9]{6}"));
+    }
+}
@@ -0,0 +1,72 @@
+package com.formily.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonPatchesTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private JsonNode json(String text) throws Exception {
+        return objectMapper.readTree(text);
+    }
+
+    @Test
+    void jsonPatch_appliesEveryOperationInOrder() throws Exception {
+        JsonNode target = json("""
+                {"baz":"qux","foo":{"bar":[1,2]},"tags":["a","c"]}""");
+        JsonNode patch = json("""
+                [{"op":"test","path":"/baz","value":"qux"},
+                 {"op":"replace","path":"/baz","value":"boo"},
+                 {"op":"add","path":"/tags/1","value":"b"},
+                 {"op":"add","path":"/tags/-","value":"d"},
+                 {"op":"remove","path":"/foo/bar/0"},
+                 {"op":"copy","from":"/foo","path":"/copied"},
+                 {"op":"move","from":"/foo/bar","path":"/bar"},
+                 {"op":"test","path":"/bar/0","value":2.0},
+                 {"op":"add","path":"/a~1b","value":true}]""");
+
+        JsonNode result = JsonPatches.apply(target, patch);
+
+        assertSame(target, result);
+        assertEquals(json("""
+                {"baz":"boo","foo":{},"tags":["a","b","c","d"],"copied":{"bar":[2]},"bar":[2],"a/b":true}"""), result);
+        // replace keeps the key where it was.
+        assertEquals("baz", result.fieldNames().next());
+    }
+
+    @Test
+    void jsonPatch_rejectsMissingPathsAndReportsFailedTests() throws Exception {
+        JsonNode target = json("{\"a\":{\"b\":1},\"list\":[0]}");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> JsonPatches.apply(target, json("[{\"op\":\"replace\",\"path\":\"/missing\",\"value\":1}]")));
+        assertThrows(IllegalArgumentException.class,
+                () -> JsonPatches.apply(target, json("[{\"op\":\"add\",\"path\":\"/list/01\",\"value\":1}]")));
+        assertThrows(IllegalArgumentException.class,
+                () -> JsonPatches.apply(target, json("[{\"op\":\"move\",\"from\":\"/a\",\"path\":\"/a/c\"}]")));
+        assertThrows(IllegalArgumentException.class,
+                () -> JsonPatches.apply(target, json("{\"op\":\"remove\",\"path\":\"/a\"}")));
+        PatchConflictException conflict = assertThrows(PatchConflictException.class,
+                () -> JsonPatches.apply(target, json("[{\"op\":\"test\",\"path\":\"/a/b\",\"value\":2}]")));
+        assertFalse(conflict.isVersionMismatch());
+    }
+
+    @Test
+    void mergePatch_followsRfc7386() throws Exception {
+        JsonNode target = json("""
+                {"title":"Goodbye!","author":{"givenName":"John","familyName":"Doe"},"tags":["example","sample"],"content":"x"}""");
+        JsonNode patch = json("""
+                {"title":"Hello!","phoneNumber":"+01-123-456-7890","author":{"familyName":null},"tags":["example"]}""");
+
+        JsonNode result = JsonPatches.merge(target, patch);
+
+        assertEquals(json("""
+                {"title":"Hello!","author":{"givenName":"John"},"tags":["example"],"content":"x","phoneNumber":"+01-123-456-7890"}"""),
+                result);
+        assertEquals(json("{\"a\":{\"b\":\"c\"}}"), JsonPatches.merge(json("[1]"), json("{\"a\":{\"b\":\"c\",\"d\":null}}")));
+    }
+}
@@ -0,0 +1,89 @@
+package com.formily.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.formily.config.StorageProperties;
+import com.formily.model.Schema;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaMetricsTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private String previousUserDir;
+    private SchemaService service;
+
+    private SchemaService newServiceAt(Path baseDir) throws IOException {
+        previousUserDir = System.getProperty("user.dir");
+        System.setProperty("user.dir", baseDir.toString());
+        Files.createDirectories(baseDir.resolve("src/main/resources"));
+        ObservationRegistry observations = ObservationRegistry.create();
+        observations.observationConfig().observationHandler(new DefaultMeterObservationHandler(registry));
+        StorageProperties properties = new StorageProperties();
+        // Every read goes to the store, so each one is measured.
+        properties.getCache().setEnabled(false);
+        service = new SchemaService(properties, new SchemaMetrics(registry, observations));
+        return service;
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (service != null) {
+            service.close();
+        }
+        if (previousUserDir != null) {
+            System.setProperty("user.dir", previousUserDir);
+        }
+    }
+
+    private long phaseCount(String phase, String kind) {
+        return registry.get(SchemaMetrics.PHASE).tag("phase", phase).tag("kind", kind).timer().count();
+    }
+
+    @Test
+    void recordsPhasesBytesAndOperations(@TempDir Path tmp) throws Exception {
+        SchemaService service = newServiceAt(tmp);
+        Schema schema = new Schema();
+        schema.setId("m");
+        schema.setValue(objectMapper.readTree("""
+                {"schema":{"type":"object","properties":{"name":{"type":"string"}}}}
+                """));
+
+        service.saveSchema(schema);
+        service.getSchemaById("m");
+        service.getAllSchemas();
+
+        assertEquals(1, phaseCount("generate", "-"));
+        assertEquals(1, phaseCount("write", "schema"));
+        assertEquals(1, phaseCount("write", "data"));
+        assertEquals(2, phaseCount("read", "schema"));
+        assertEquals(2, phaseCount("parse", "data"));
+        assertTrue(registry.get(SchemaMetrics.BYTES).tag("direction", "read").tag("kind", "schema")
+                .summary().totalAmount() > 0);
+        assertEquals(1, registry.get(SchemaMetrics.LIST_SIZE).tag("operation", "list").summary().totalAmount());
+        assertEquals(1, registry.get(SchemaMetrics.OPERATION).tag("operation", "get").timer().count());
+        assertEquals(1, registry.get(SchemaMetrics.OPERATION).tag("operation", "save").timer().count());
+    }
+
+    @Test
+    void countsFailuresByExceptionType(@TempDir Path tmp) throws Exception {
+        SchemaService service = newServiceAt(tmp);
+        Files.writeString(tmp.resolve("src/main/resources/schema/broken.json"), "{not json");
+
+        assertThrows(IOException.class, () -> service.getSchemaById("broken"));
+
+        assertEquals(1, registry.get(SchemaMetrics.ERRORS)
+                .tag("operation", "get").tag("exception", "JsonParseException").counter().count());
+    }
+}
@@ -0,0 +1,97 @@
+package com.formily.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.formily.config.StorageProperties;
+import com.formily.model.BatchItemResult;
+import com.formily.model.BatchItemResult.Status;
+import com.formily.model.Schema;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaServiceBatchTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private String previousUserDir;
+    private SchemaService service;
+
+    private SchemaService newServiceAt(Path baseDir, StorageProperties properties) throws IOException {
+        previousUserDir = System.getProperty("user.dir");
+        System.setProperty("user.dir", baseDir.toString());
+        Files.createDirectories(baseDir.resolve("src/main/resources"));
+        service = new SchemaService(properties);
+        return service;
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (service != null) {
+            service.close();
+        }
+        if (previousUserDir != null) {
+            System.setProperty("user.dir", previousUserDir);
+        }
+    }
+
+    private Schema schema(String id, String title) {
+        ObjectNode value = objectMapper.createObjectNode();
+        value.set("schema", objectMapper.createObjectNode().put("type", "object").put("title", title));
+        value.set("initial_values", objectMapper.createObjectNode().put("k", title));
+        Schema schema = new Schema();
+        schema.setId(id);
+        schema.setValue(value);
+        return schema;
+    }
+
+    @Test
+    void batchSaveGetDelete_returnPerItemResultsInRequestOrder(@TempDir Path tmp) throws Exception {
+        SchemaService service = newServiceAt(tmp, new StorageProperties());
+        List<Schema> toSave = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            toSave.add(schema("s" + i, "t" + i));
+        }
+        toSave.add(schema(null, "generated"));
+
+        List<BatchItemResult> saved = service.saveSchemas(toSave);
+        assertEquals(21, saved.size());
+        for (int i = 0; i < 20; i++) {
+            assertEquals("s" + i, saved.get(i).id());
+            assertEquals(Status.OK, saved.get(i).status());
+        }
+        String generatedId = saved.get(20).id();
+        assertEquals(Status.CREATED, saved.get(20).status());
+        assertNotNull(generatedId);
+
+        List<BatchItemResult> read = service.getSchemas(Arrays.asList("s3", "missing", generatedId, " "));
+        assertEquals(Status.OK, read.get(0).status());
+        assertEquals("t3", read.get(0).schema().getValue().get("initial_values").get("k").asText());
+        assertEquals(Status.NOT_FOUND, read.get(1).status());
+        assertEquals("generated", read.get(2).schema().getValue().get("schema").get("title").asText());
+        assertEquals(Status.INVALID, read.get(3).status());
+
+        List<BatchItemResult> deleted = service.deleteSchemas(List.of("s1", "s1-missing"));
+        assertEquals(Status.OK, deleted.get(0).status());
+        assertEquals(Status.NOT_FOUND, deleted.get(1).status());
+        assertNull(service.getSchemaById("s1"));
+    }
+
+    @Test
+    void batch_rejectsOversizedRequests(@TempDir Path tmp) throws Exception {
+        StorageProperties properties = new StorageProperties();
+        properties.getBatch().setMaxItems(2);
+        SchemaService service = newServiceAt(tmp, properties);
+
+        assertThrows(IllegalArgumentException.class, () -> service.getSchemas(List.of("a", "b", "c")));
+        assertEquals(2, service.getSchemas(List.of("a", "b")).size());
+    }
+}
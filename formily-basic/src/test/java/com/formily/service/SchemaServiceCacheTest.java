@@ -0,0 +1,172 @@
+package com.formily.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.formily.config.StorageProperties;
+import com.formily.model.Schema;
+import com.formily.model.SchemaVersion;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaServiceCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private String previousUserDir;
+    private SchemaService service;
+
+    private SchemaService newServiceAt(Path baseDir) throws IOException {
+        return newServiceAt(baseDir, new StorageProperties());
+    }
+
+    private SchemaService newServiceAt(Path baseDir, StorageProperties properties) throws IOException {
+        previousUserDir = System.getProperty("user.dir");
+        System.setProperty("user.dir", baseDir.toString());
+        Files.createDirectories(baseDir.resolve("src/main/resources"));
+        service = new SchemaService(properties);
+        return service;
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (service != null) {
+            service.close();
+        }
+        if (previousUserDir != null) {
+            System.setProperty("user.dir", previousUserDir);
+        }
+    }
+
+    private Schema schemaWithTitle(String id, String title) {
+        ObjectNode value = objectMapper.createObjectNode();
+        value.set("schema", objectMapper.createObjectNode().put("type", "object").put("title", title));
+        value.set("initial_values", objectMapper.createObjectNode().put("k", title));
+        Schema schema = new Schema();
+        schema.setId(id);
+        schema.setValue(value);
+        return schema;
+    }
+
+    @Test
+    void getSchemaById_servesRepeatedReadsFromCache(@TempDir Path tmp) throws Exception {
+        // Our own writes also raise watch events; keep them from evicting mid-assertion.
+        StorageProperties properties = new StorageProperties();
+        properties.getCache().setWatchEnabled(false);
+        SchemaService service = newServiceAt(tmp, properties);
+        service.saveSchema(schemaWithTitle("hot", "v1"));
+
+        service.getSchemaById("hot");
+        long hitsBefore = service.getCacheStats().get("schema").hits();
+        service.getSchemaById("hot");
+        service.getSchemaById("hot");
+
+        assertEquals(hitsBefore + 2, service.getCacheStats().get("schema").hits());
+    }
+
+    @Test
+    void getSchemaById_returnsCopiesThatDoNotLeakIntoCache(@TempDir Path tmp) throws Exception {
+        SchemaService service = newServiceAt(tmp);
+        service.saveSchema(schemaWithTitle("copy", "v1"));
+
+        Schema first = service.getSchemaById("copy");
+        ((ObjectNode) first.getValue().get("schema")).put("title", "mutated");
+        ((ObjectNode) first.getValue().get("initial_values")).put("k", "mutated");
+
+        Schema second = service.getSchemaById("copy");
+        assertEquals("v1", second.getValue().get("schema").get("title").asText());
+        assertEquals("v1", second.getValue().get("initial_values").get("k").asText());
+    }
+
+    @Test
+    void saveSchema_invalidatesCachedEntry(@TempDir Path tmp) throws Exception {
+        SchemaService service = newServiceAt(tmp);
+        service.saveSchema(schemaWithTitle("upd", "v1"));
+        service.getSchemaById("upd");
+
+        service.saveSchema(schemaWithTitle("upd", "v2"));
+
+        Schema read = service.getSchemaById("upd");
+        assertEquals("v2", read.getValue().get("schema").get("title").asText());
+        assertEquals("v2", read.getValue().get("initial_values").get("k").asText());
+    }
+
+    @Test
+    void deleteSchema_invalidatesCachedEntry(@TempDir Path tmp) throws Exception {
+        SchemaService service = newServiceAt(tmp);
+        service.saveSchema(schemaWithTitle("gone", "v1"));
+        service.getSchemaById("gone");
+
+        assertTrue(service.deleteSchema("gone"));
+
+        assertNull(service.getSchemaById("gone"));
+        assertNull(service.getSchemaData("gone"));
+    }
+
+    @Test
+    void outOfBandEdit_isPickedUpByDirectoryWatch(@TempDir Path tmp) throws Exception {
+        SchemaService service = newServiceAt(tmp);
+        service.saveSchema(schemaWithTitle("ext", "v1"));
+        assertEquals("v1", service.getSchemaData("ext").get("k").asText());
+
+        Path dataFile = tmp.resolve("src/main/resources/data/ext.json");
+        Files.writeString(dataFile, "{\"k\":\"edited\"}");
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        JsonNode data = service.getSchemaData("ext");
+        while (!"edited".equals(data.get("k").asText()) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            data = service.getSchemaData("ext");
+        }
+        assertEquals("edited", data.get("k").asText());
+    }
+
+    @Test
+    void boundedCache_evictsLeastRecentlyUsedByEntriesAndWeight() {
+        BoundedCache<String> cache = new BoundedCache<>(2, 100);
+        cache.put("a", "A", 10);
+        cache.put("b", "B", 10);
+        cache.get("a");
+        cache.put("c", "C", 10);
+
+        assertNull(cache.get("b"), "least recently used entry should be evicted");
+        assertEquals("A", cache.get("a"));
+
+        cache.put("d", "D", 95);
+        assertEquals(1, cache.stats().size(), "weight budget should force further evictions");
+        assertEquals(3, cache.stats().evictions());
+    }
+
+    @Test
+    void boundedCache_dropsValuesReadBeforeAnInvalidation() {
+        BoundedCache<String> cache = new BoundedCache<>(10, 100);
+        long generation = cache.generation();
+        cache.invalidate("a");
+
+        assertFalse(cache.putIfUnchanged("a", "stale", 1, generation));
+        assertNull(cache.get("a"));
+    }
+
+    @Test
+    void getSchemaVersion_changesWhenSchemaOrDataChanges(@TempDir Path tmp) throws Exception {
+        SchemaService service = newServiceAt(tmp);
+        assertNull(service.getSchemaVersion("versioned"));
+        service.saveSchema(schemaWithTitle("versioned", "v1"));
+
+        SchemaVersion v1 = service.getSchemaVersion("versioned");
+        assertEquals(v1, service.getSchemaVersion("versioned"));
+
+        service.saveSchemaData("versioned", objectMapper.createObjectNode().put("k", "longer value"));
+        SchemaVersion v2 = service.getSchemaVersion("versioned");
+        assertNotEquals(v1.tag(), v2.tag());
+
+        service.saveSchema(schemaWithTitle("versioned", "v2 with a longer title"));
+        assertNotEquals(v2.tag(), service.getSchemaVersion("versioned").tag());
+    }
+}
@@ -0,0 +1,142 @@
+package com.formily.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.formily.model.Schema;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaServiceConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int SAVES_PER_THREAD = 200;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private String previousUserDir;
+    private SchemaService service;
+
+    private SchemaService newServiceAt(Path baseDir) throws IOException {
+        previousUserDir = System.getProperty("user.dir");
+        System.setProperty("user.dir", baseDir.toString());
+        Files.createDirectories(baseDir.resolve("src/main/resources"));
+        service = new SchemaService();
+        return service;
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (service != null) {
+            service.close();
+        }
+        if (previousUserDir != null) {
+            System.setProperty("user.dir", previousUserDir);
+        }
+    }
+
+    private Schema stamped(String id, String stamp) {
+        ObjectNode value = objectMapper.createObjectNode();
+        value.set("schema", objectMapper.createObjectNode().put("type", "object").put("title", stamp));
+        value.set("initial_values", objectMapper.createObjectNode().put("stamp", stamp));
+        Schema schema = new Schema();
+        schema.setId(id);
+        schema.setValue(value);
+        return schema;
+    }
+
+    @Test
+    void concurrentSavesOfSameIds_keepSchemaAndDataFromTheSameSave(@TempDir Path tmp) throws Exception {
+        SchemaService service = newServiceAt(tmp);
+
+        // Every iteration races all threads on a fresh id, so each one is an independent check.
+        runConcurrently((thread, i) -> service.saveSchema(stamped("tab-" + i, "t" + thread + "-" + i)));
+
+        for (int i = 0; i < SAVES_PER_THREAD; i++) {
+            String id = "tab-" + i;
+            JsonNode schemaFile = objectMapper.readTree(tmp.resolve("src/main/resources/schema/" + id + ".json").toFile());
+            JsonNode dataFile = objectMapper.readTree(tmp.resolve("src/main/resources/data/" + id + ".json").toFile());
+            assertEquals(schemaFile.get("value").get("schema").get("title").asText(), dataFile.get("stamp").asText(),
+                    "schema and data of " + id + " must come from the same save");
+        }
+    }
+
+    @Test
+    void concurrentSavesOfDistinctIds_loseNoUpdates(@TempDir Path tmp) throws Exception {
+        SchemaService service = newServiceAt(tmp);
+
+        runConcurrently((thread, i) -> {
+            String id = "form-" + thread + "-" + (i % 5);
+            service.saveSchema(stamped(id, "t" + thread + "-" + i));
+        });
+
+        for (int thread = 0; thread < THREADS; thread++) {
+            for (int slot = 0; slot < 5; slot++) {
+                // The last write of each id happens in its owning thread at i = SAVES_PER_THREAD - 5 + slot.
+                String expected = "t" + thread + "-" + (SAVES_PER_THREAD - 5 + slot);
+                Schema read = service.getSchemaById("form-" + thread + "-" + slot);
+                assertNotNull(read);
+                assertEquals(expected, read.getValue().get("schema").get("title").asText());
+                assertEquals(expected, read.getValue().get("initial_values").get("stamp").asText());
+            }
+        }
+    }
+
+    @Test
+    void concurrentSaveAndDelete_neverLeaveOrphanedData(@TempDir Path tmp) throws Exception {
+        SchemaService service = newServiceAt(tmp);
+
+        runConcurrently((thread, i) -> {
+            if (thread % 2 == 0) {
+                service.saveSchema(stamped("churn", "t" + thread + "-" + i));
+            } else {
+                service.deleteSchema("churn");
+            }
+        });
+
+        boolean schemaExists = Files.exists(tmp.resolve("src/main/resources/schema/churn.json"));
+        boolean dataExists = Files.exists(tmp.resolve("src/main/resources/data/churn.json"));
+        assertEquals(schemaExists, dataExists);
+    }
+
+    @FunctionalInterface
+    private interface Action {
+        void run(int thread, int iteration) throws Exception;
+    }
+
+    private static void runConcurrently(Action action) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        // Realign all threads before every iteration so each one is a genuine race.
+        CyclicBarrier barrier = new CyclicBarrier(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < SAVES_PER_THREAD; i++) {
+                        barrier.await();
+                        action.run(thread, i);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
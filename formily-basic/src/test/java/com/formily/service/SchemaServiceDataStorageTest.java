@@ -171,4 +171,33 @@ class SchemaServiceDataStorageTest {
         assertFalse(data.get("name").asText().trim().isEmpty());
         assertTrue(data.hasNonNull("age"));
     }
+
+    @Test
+    void saveSchema_sameSeedGeneratesSameInitialValues(@TempDir Path tmp) throws Exception {
+        SchemaService service = newServiceAt(tmp);
+        String schemaJson = """
+                {"type":"object","properties":{
+                  "name":{"type":"string","x-component":"Input"},
+                  "age":{"type":"number","x-component":"NumberPicker"},
+                  "at":{"type":"string","x-component":"DateTimePicker"},
+                  "level":{"type":"string","enum":["a","b","c","d"]}}}
+                """;
+
+        JsonNode first = null;
+        for (String id : new String[]{"s1", "s2"}) {
+            ObjectNode value = objectMapper.createObjectNode();
+            value.set("schema", objectMapper.readTree(schemaJson));
+            Schema schema = new Schema();
+            schema.setId(id);
+            schema.setValue(value);
+            service.saveSchema(schema, 42L);
+            JsonNode data = service.getSchemaData(id);
+            if (first == null) {
+                first = data;
+            } else {
+                assertEquals(first, data);
+            }
+        }
+        assertEquals(4, first.size());
+    }
 }
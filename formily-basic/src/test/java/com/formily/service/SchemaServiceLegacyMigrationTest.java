@@ -0,0 +1,74 @@
+package com.formily.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaServiceLegacyMigrationTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private String previousUserDir;
+    private SchemaService service;
+
+    private SchemaService newServiceAt(Path baseDir) throws IOException {
+        if (previousUserDir == null) {
+            previousUserDir = System.getProperty("user.dir");
+        }
+        System.setProperty("user.dir", baseDir.toString());
+        Files.createDirectories(baseDir.resolve("src/main/resources"));
+        return new SchemaService();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (service != null) {
+            service.close();
+        }
+        if (previousUserDir != null) {
+            System.setProperty("user.dir", previousUserDir);
+        }
+    }
+
+    @Test
+    void migrateLegacyFormat_rewritesLegacyFilesAndMarksStore(@TempDir Path tmp) throws Exception {
+        Path schemaDir = tmp.resolve("src/main/resources/schema");
+        Files.createDirectories(schemaDir);
+        // Value-only file and a wrapped file that still embeds initial_values.
+        Files.writeString(schemaDir.resolve("bare.json"), "{\"schema\":{\"type\":\"object\",\"title\":\"bare\"}}");
+        Files.writeString(schemaDir.resolve("embedded.json"),
+                "{\"id\":\"embedded\",\"value\":{\"schema\":{\"type\":\"object\"},\"initial_values\":{\"k\":\"v\"}}}");
+        FileTime modified = FileTime.fromMillis(1_600_000_000_000L);
+        Files.setLastModifiedTime(schemaDir.resolve("bare.json"), modified);
+
+        service = newServiceAt(tmp);
+        assertEquals(2, service.migrateLegacyFormat());
+
+        JsonNode bare = objectMapper.readTree(schemaDir.resolve("bare.json").toFile());
+        assertEquals("bare", bare.get("id").asText());
+        assertEquals("bare", bare.get("value").get("schema").get("title").asText());
+        assertEquals(modified, Files.getLastModifiedTime(schemaDir.resolve("bare.json")),
+                "migration must not reorder modified-time listings");
+
+        JsonNode embedded = objectMapper.readTree(schemaDir.resolve("embedded.json").toFile());
+        assertFalse(embedded.get("value").has("initial_values"));
+        JsonNode data = objectMapper.readTree(tmp.resolve("src/main/resources/data/embedded.json").toFile());
+        assertEquals("v", data.get("k").asText());
+
+        assertEquals(0, service.migrateLegacyFormat());
+        service.close();
+
+        // A fresh service trusts the marker and reads without the compatibility probes.
+        service = newServiceAt(tmp);
+        assertEquals("v", service.getSchemaById("embedded").getValue().get("initial_values").get("k").asText());
+        assertEquals("bare", service.getSchemaById("bare").getValue().get("schema").get("title").asText());
+    }
+}
@@ -0,0 +1,176 @@
+package com.formily.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.formily.model.Schema;
+import com.formily.model.SchemaPage;
+import com.formily.model.SchemaSort;
+import com.formily.model.SchemaSummary;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaServicePageTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private String previousUserDir;
+    private SchemaService service;
+
+    private SchemaService newServiceAt(Path baseDir) throws IOException {
+        previousUserDir = System.getProperty("user.dir");
+        System.setProperty("user.dir", baseDir.toString());
+        Files.createDirectories(baseDir.resolve("src/main/resources"));
+        service = new SchemaService();
+        return service;
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (service != null) {
+            service.close();
+        }
+        if (previousUserDir != null) {
+            System.setProperty("user.dir", previousUserDir);
+        }
+    }
+
+    private void save(SchemaService service, String id) throws IOException {
+        ObjectNode value = objectMapper.createObjectNode();
+        value.set("schema", objectMapper.createObjectNode().put("type", "object"));
+        value.set("initial_values", objectMapper.createObjectNode().put("id", id));
+        Schema schema = new Schema();
+        schema.setId(id);
+        schema.setValue(value);
+        service.saveSchema(schema);
+    }
+
+    @Test
+    void cursorWalk_visitsEverySchemaOnceInIdOrder(@TempDir Path tmp) throws Exception {
+        SchemaService service = newServiceAt(tmp);
+        for (String id : List.of("e", "b", "d", "a", "c")) {
+            save(service, id);
+        }
+
+        List<String> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            SchemaPage page = service.getSchemaPage(0, cursor, 2, SchemaSort.ID_ASC, true);
+            assertEquals(5, page.total());
+            page.items().forEach(s -> seen.add(s.getId()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertEquals(List.of("a", "b", "c", "d", "e"), seen);
+    }
+
+    @Test
+    void offsetAndDescendingSort(@TempDir Path tmp) throws Exception {
+        SchemaService service = newServiceAt(tmp);
+        for (String id : List.of("a", "b", "c", "d")) {
+            save(service, id);
+        }
+
+        SchemaPage page = service.getSchemaPage(1, null, 2, SchemaSort.ID_DESC, true);
+
+        assertEquals(List.of("c", "b"), page.items().stream().map(Schema::getId).toList());
+        assertEquals("b", page.nextCursor());
+    }
+
+    @Test
+    void offsetBeyondTheMaximumIsRejectedWithoutAllocatingForIt(@TempDir Path tmp) throws Exception {
+        SchemaService service = newServiceAt(tmp);
+        save(service, "a");
+
+        assertTrue(service.getSchemaPage(SchemaService.MAX_OFFSET, null, SchemaService.MAX_PAGE_SIZE,
+                SchemaSort.ID_ASC, true).items().isEmpty());
+        for (int offset : new int[]{SchemaService.MAX_OFFSET + 1, 1_000_000_000, Integer.MAX_VALUE}) {
+            assertThrows(IllegalArgumentException.class,
+                    () -> service.getSchemaPage(offset, null, 10, SchemaSort.ID_ASC, true));
+        }
+    }
+
+    @Test
+    void modifiedSort_ordersByFileTimestamp(@TempDir Path tmp) throws Exception {
+        SchemaService service = newServiceAt(tmp);
+        for (String id : List.of("a", "b", "c")) {
+            save(service, id);
+        }
+        Path schemaDir = tmp.resolve("src/main/resources/schema");
+        Files.setLastModifiedTime(schemaDir.resolve("a.json"), FileTime.fromMillis(3_000));
+        Files.setLastModifiedTime(schemaDir.resolve("b.json"), FileTime.fromMillis(1_000));
+        Files.setLastModifiedTime(schemaDir.resolve("c.json"), FileTime.fromMillis(2_000));
+
+        SchemaPage first = service.getSchemaPage(0, null, 2, SchemaSort.MODIFIED_DESC, true);
+        assertEquals(List.of("a", "c"), first.items().stream().map(Schema::getId).toList());
+
+        SchemaPage second = service.getSchemaPage(0, first.nextCursor(), 2, SchemaSort.MODIFIED_DESC, true);
+        assertEquals(List.of("b"), second.items().stream().map(Schema::getId).toList());
+        assertNull(second.nextCursor());
+    }
+
+    @Test
+    void excludeInitialValues_skipsDataAttachment(@TempDir Path tmp) throws Exception {
+        SchemaService service = newServiceAt(tmp);
+        save(service, "a");
+
+        SchemaPage page = service.getSchemaPage(0, null, 10, SchemaSort.ID_ASC, false);
+
+        assertFalse(page.items().get(0).getValue().has("initial_values"));
+        assertEquals(0, service.getCacheStats().get("data").hits() + service.getCacheStats().get("data").misses());
+    }
+
+    @Test
+    void summaries_readTitleAndFieldCountForNewAndLegacyFiles(@TempDir Path tmp) throws Exception {
+        SchemaService service = newServiceAt(tmp);
+        Path schemaDir = tmp.resolve("src/main/resources/schema");
+        Files.writeString(schemaDir.resolve("new.json"), """
+                {"id":"new","value":{"form":{"labelCol":6},"schema":{"type":"object","title":"Host",
+                  "properties":{"card":{"type":"void","x-component":"Card","title":"Card title",
+                    "properties":{"name":{"type":"string","enum":[{"label":"A","value":"a"}]},"ip":{"type":"string"}}}}}}}
+                """);
+        Files.writeString(schemaDir.resolve("legacy.json"), """
+                {"schema":{"type":"object","properties":{"a":{"type":"string"}}},"initial_values":{"a":"x"}}
+                """);
+
+        List<SchemaSummary> summaries = service.getSchemaSummaries(SchemaSort.ID_DESC);
+
+        assertEquals(2, summaries.size());
+        assertEquals(new SchemaSummary("new", "Host", 3, summaries.get(0).lastModified()), summaries.get(0));
+        assertEquals(new SchemaSummary("legacy", null, 1, summaries.get(1).lastModified()), summaries.get(1));
+        assertFalse(Files.exists(tmp.resolve("src/main/resources/data/legacy.json")),
+                "summaries must not touch data files");
+    }
+
+    @Test
+    void forEachSchema_visitsEverySchemaWithInitialValues(@TempDir Path tmp) throws Exception {
+        SchemaService service = newServiceAt(tmp);
+        for (String id : List.of("a", "b", "c")) {
+            save(service, id);
+        }
+
+        List<String> visited = new ArrayList<>();
+        service.forEachSchema(schema -> {
+            assertEquals(schema.getId(), schema.getValue().get("initial_values").get("id").asText());
+            visited.add(schema.getId());
+        });
+
+        assertEquals(List.of("a", "b", "c"), visited.stream().sorted().toList());
+    }
+
+    @Test
+    void rejectsOversizedPages(@TempDir Path tmp) throws Exception {
+        SchemaService service = newServiceAt(tmp);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> service.getSchemaPage(0, null, SchemaService.MAX_PAGE_SIZE + 1, SchemaSort.ID_ASC, true));
+    }
+}
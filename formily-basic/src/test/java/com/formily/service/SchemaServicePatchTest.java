@@ -0,0 +1,117 @@
+package com.formily.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.formily.model.Schema;
+import com.formily.model.SchemaQuery;
+import com.formily.model.SchemaVersion;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaServicePatchTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private String previousUserDir;
+    private SchemaService service;
+
+    private SchemaService newServiceAt(Path baseDir) throws IOException {
+        previousUserDir = System.getProperty("user.dir");
+        System.setProperty("user.dir", baseDir.toString());
+        Files.createDirectories(baseDir.resolve("src/main/resources"));
+        service = new SchemaService();
+        return service;
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (service != null) {
+            service.close();
+        }
+        if (previousUserDir != null) {
+            System.setProperty("user.dir", previousUserDir);
+        }
+    }
+
+    private void save(SchemaService service, String id) throws IOException {
+        Schema schema = new Schema();
+        schema.setId(id);
+        schema.setValue(objectMapper.readTree("""
+                {"schema":{"type":"object","properties":{"name":{"title":"Name","type":"string"}}},
+                 "initial_values":{"name":"Ada"}}"""));
+        service.saveSchema(schema);
+    }
+
+    @Test
+    void patchSchema_updatesInPlaceAndReturnsTheNewVersion(@TempDir Path tmp) throws Exception {
+        SchemaService service = newServiceAt(tmp);
+        save(service, "p");
+        SchemaVersion before = service.getSchemaVersion("p");
+        Thread.sleep(5);
+
+        SchemaVersion after = service.patchSchema("p", objectMapper.readTree("""
+                [{"op":"replace","path":"/schema/properties/name/title","value":"Full name"},
+                 {"op":"add","path":"/schema/properties/age","value":{"type":"number","x-component":"NumberPicker"}}]"""),
+                PatchFormat.JSON_PATCH, List.of(before.tag()));
+
+        assertEquals(service.getSchemaVersion("p"), after);
+        assertNotEquals(before.tag(), after.tag());
+        Schema stored = service.getSchemaById("p");
+        assertEquals("Full name", stored.getValue().at("/schema/properties/name/title").asText());
+        assertEquals("number", stored.getValue().at("/schema/properties/age/type").asText());
+        // Data is untouched and the search index follows the patch.
+        assertEquals("Ada", stored.getValue().at("/initial_values/name").asText());
+        assertEquals(List.of("p"), service.searchSchemas(new SchemaQuery("NumberPicker", "age", null, null), 10).ids());
+
+        // The old version no longer matches, and a failed patch leaves the stored schema alone.
+        PatchConflictException stale = assertThrows(PatchConflictException.class, () -> service.patchSchema("p",
+                objectMapper.readTree("{\"title\":\"x\"}"), PatchFormat.MERGE_PATCH, List.of(before.tag())));
+        assertTrue(stale.isVersionMismatch());
+        assertThrows(IllegalArgumentException.class, () -> service.patchSchema("p", objectMapper.readTree("""
+                [{"op":"remove","path":"/schema/properties/name"},{"op":"remove","path":"/nope"}]"""),
+                PatchFormat.JSON_PATCH, List.of()));
+        assertTrue(service.getSchemaById("p").getValue().at("/schema/properties/name").isObject());
+
+        assertNull(service.patchSchema("missing", objectMapper.readTree("{}"), PatchFormat.MERGE_PATCH, List.of()));
+    }
+
+    @Test
+    void patchSchemaData_mergesIntoInitialValues(@TempDir Path tmp) throws Exception {
+        SchemaService service = newServiceAt(tmp);
+        save(service, "d");
+
+        SchemaVersion version = service.patchSchemaData("d",
+                objectMapper.readTree("{\"name\":null,\"city\":\"Paris\"}"), PatchFormat.MERGE_PATCH, List.of());
+
+        assertEquals(service.getSchemaVersion("d"), version);
+        JsonNode data = service.getSchemaData("d");
+        assertEquals(objectMapper.readTree("{\"city\":\"Paris\"}"), data);
+        assertEquals("Name", service.getSchemaById("d").getValue().at("/schema/properties/name/title").asText());
+        assertNull(service.patchSchemaData("missing", objectMapper.readTree("{}"), PatchFormat.MERGE_PATCH, List.of()));
+    }
+
+    @Test
+    void patchesThatReplaceTheDocumentWithANonObjectAreRejected(@TempDir Path tmp) throws Exception {
+        SchemaService service = newServiceAt(tmp);
+        save(service, "n");
+        SchemaVersion before = service.getSchemaVersion("n");
+
+        assertThrows(IllegalArgumentException.class, () -> service.patchSchema("n",
+                objectMapper.readTree("[1,2]"), PatchFormat.MERGE_PATCH, List.of()));
+        assertThrows(IllegalArgumentException.class, () -> service.patchSchema("n",
+                objectMapper.readTree("[{\"op\":\"replace\",\"path\":\"\",\"value\":\"x\"}]"),
+                PatchFormat.JSON_PATCH, List.of()));
+        assertThrows(IllegalArgumentException.class, () -> service.patchSchemaData("n",
+                objectMapper.readTree("\"x\""), PatchFormat.MERGE_PATCH, List.of()));
+
+        assertEquals(before, service.getSchemaVersion("n"));
+        assertEquals("Ada", service.getSchemaData("n").get("name").asText());
+    }
+}
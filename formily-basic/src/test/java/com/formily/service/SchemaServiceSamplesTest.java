@@ -0,0 +1,131 @@
+package com.formily.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.formily.config.StorageProperties;
+import com.formily.model.Schema;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaServiceSamplesTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private String previousUserDir;
+    private SchemaService service;
+
+    private SchemaService newServiceAt(Path baseDir) throws IOException {
+        previousUserDir = System.getProperty("user.dir");
+        System.setProperty("user.dir", baseDir.toString());
+        Files.createDirectories(baseDir.resolve("src/main/resources"));
+        service = new SchemaService();
+        return service;
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (service != null) {
+            service.close();
+        }
+        if (previousUserDir != null) {
+            System.setProperty("user.dir", previousUserDir);
+        }
+    }
+
+    private Schema schema() throws IOException {
+        Schema schema = new Schema();
+        schema.setId("s");
+        schema.setValue(objectMapper.readTree("""
+                {"schema":{"type":"object","properties":{
+                  "name":{"type":"string","x-component":"Input"},
+                  "level":{"type":"string","enum":["a","b","c"]}}}}
+                """));
+        return schema;
+    }
+
+    private String samples(Schema schema, long count, Long seed, boolean ordered) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.writeSamples(schema, count, seed, ordered, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void seededOrderedSamplesAreReproducible(@TempDir Path tmp) throws Exception {
+        newServiceAt(tmp);
+        Schema schema = schema();
+
+        String first = samples(schema, 2500, 42L, true);
+        String second = samples(schema, 2500, 42L, true);
+
+        assertEquals(first, second);
+        String[] lines = first.split("\n");
+        assertEquals(2500, lines.length);
+        assertTrue(objectMapper.readTree(lines[2499]).get("name").asText().startsWith("name_"));
+        assertNotEquals(first, samples(schema, 2500, 43L, true));
+    }
+
+    @Test
+    void unorderedSamplesContainTheSameRecords(@TempDir Path tmp) throws Exception {
+        newServiceAt(tmp);
+        Schema schema = schema();
+
+        String[] ordered = samples(schema, 5000, 7L, true).split("\n");
+        String[] unordered = samples(schema, 5000, 7L, false).split("\n");
+
+        Arrays.sort(ordered);
+        Arrays.sort(unordered);
+        assertArrayEquals(ordered, unordered);
+        assertThrows(IllegalArgumentException.class, () -> samples(schema, -1, null, true));
+    }
+
+    @Test
+    void seededSamplesFollowTheirOwnSchemaRegardlessOfWhatRanBefore(@TempDir Path tmp) throws Exception {
+        newServiceAt(tmp);
+        Schema reordered = new Schema();
+        reordered.setValue(objectMapper.readTree("""
+                {"schema":{"type":"object","properties":{
+                  "level":{"type":"string","enum":["a","b","c"]},
+                  "name":{"type":"string","x-component":"Input"}}}}
+                """));
+        String before = samples(schema(), 50, 7L, true);
+        String after = samples(reordered, 50, 7L, true);
+
+        // Same fields in another order draw in their own order, not that of the schema seen first.
+        assertTrue(before.startsWith("{\"name\""));
+        assertTrue(after.startsWith("{\"level\""));
+    }
+
+    @Test
+    void plansAreSharedByIdenticalSchemasAndEvictedBeyondTheLimit(@TempDir Path tmp) throws Exception {
+        previousUserDir = System.getProperty("user.dir");
+        System.setProperty("user.dir", tmp.toString());
+        Files.createDirectories(tmp.resolve("src/main/resources"));
+        StorageProperties properties = new StorageProperties();
+        properties.getCache().setPlanMaxEntries(1);
+        service = new SchemaService(properties);
+        Schema other = new Schema();
+        other.setValue(objectMapper.readTree("""
+                {"schema":{"type":"object","properties":{"age":{"type":"number"}}}}"""));
+
+        samples(schema(), 10, 1L, true);
+        samples(schema(), 10, 2L, true);
+        BoundedCache.Stats shared = service.getCacheStats().get("plan");
+        assertEquals(1, shared.misses());
+        assertEquals(1, shared.hits());
+
+        samples(other, 10, 1L, true);
+        samples(schema(), 10, 1L, true);
+        BoundedCache.Stats evicted = service.getCacheStats().get("plan");
+        assertEquals(3, evicted.misses());
+        assertEquals(2, evicted.evictions());
+        assertEquals(1, evicted.size());
+    }
+}
@@ -0,0 +1,104 @@
+package com.formily.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.formily.model.Schema;
+import com.formily.model.SchemaQuery;
+import com.formily.model.SchemaSearchResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaServiceSearchTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private String previousUserDir;
+    private SchemaService service;
+
+    private SchemaService newServiceAt(Path baseDir) throws IOException {
+        if (previousUserDir == null) {
+            previousUserDir = System.getProperty("user.dir");
+        }
+        System.setProperty("user.dir", baseDir.toString());
+        Files.createDirectories(baseDir.resolve("src/main/resources"));
+        service = new SchemaService();
+        return service;
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (service != null) {
+            service.close();
+        }
+        if (previousUserDir != null) {
+            System.setProperty("user.dir", previousUserDir);
+        }
+    }
+
+    private void save(SchemaService service, String id, String json) throws IOException {
+        Schema schema = new Schema();
+        schema.setId(id);
+        schema.setValue(objectMapper.readTree(json));
+        service.saveSchema(schema);
+    }
+
+    private static List<String> ids(SchemaSearchResult result) {
+        return result.ids();
+    }
+
+    @Test
+    void search_followsSavesUpdatesAndDeletes(@TempDir Path tmp) throws Exception {
+        SchemaService service = newServiceAt(tmp);
+        save(service, "assets", """
+                {"schema":{"title":"Asset Request","properties":{
+                  "card":{"x-component":"Card","properties":{
+                    "asset":{"title":"Asset","x-component":"Select",
+                             "enum":[{"label":"Laptop","value":"laptop"},"monitor"]}}}}}}""");
+        save(service, "leave", """
+                {"schema":{"title":"Leave","properties":{
+                  "kind":{"x-component":"Select","enum":["annual","sick"]},
+                  "days":{"type":"number","x-component":"NumberPicker"}}}}""");
+
+        assertEquals(List.of("assets", "leave"), ids(service.searchSchemas(new SchemaQuery("select", null, null, null), 10)));
+        assertEquals(List.of("assets"), ids(service.searchSchemas(new SchemaQuery("Select", "asset", null, null), 10)));
+        assertEquals(List.of("assets"), ids(service.searchSchemas(new SchemaQuery(null, null, " asset request ", null), 10)));
+        assertEquals(List.of("assets"), ids(service.searchSchemas(new SchemaQuery(null, null, null, "Laptop"), 10)));
+        assertEquals(List.of("assets"), ids(service.searchSchemas(new SchemaQuery(null, null, null, "monitor"), 10)));
+        assertEquals(List.of(), ids(service.searchSchemas(new SchemaQuery("NumberPicker", "asset", null, null), 10)));
+
+        SchemaSearchResult limited = service.searchSchemas(new SchemaQuery("Select", null, null, null), 1);
+        assertEquals(List.of("assets"), limited.ids());
+        assertEquals(2, limited.total());
+
+        // Update drops the terms that are gone and adds the new ones.
+        save(service, "leave", """
+                {"schema":{"title":"Leave","properties":{"reason":{"x-component":"Input"}}}}""");
+        assertEquals(List.of("assets"), ids(service.searchSchemas(new SchemaQuery("Select", null, null, null), 10)));
+        assertEquals(List.of(), ids(service.searchSchemas(new SchemaQuery(null, "days", null, null), 10)));
+        assertEquals(List.of("leave"), ids(service.searchSchemas(new SchemaQuery("Input", "reason", null, null), 10)));
+
+        assertTrue(service.deleteSchema("assets"));
+        assertEquals(0, service.searchSchemas(new SchemaQuery("Select", null, null, null), 10).total());
+
+        assertThrows(IllegalArgumentException.class, () -> service.searchSchemas(new SchemaQuery(null, " ", null, null), 10));
+    }
+
+    @Test
+    void index_isRebuiltFromStorageAtStartup(@TempDir Path tmp) throws Exception {
+        SchemaService first = newServiceAt(tmp);
+        save(first, "persisted", """
+                {"schema":{"properties":{"rows":{"type":"array","x-component":"ArrayTable",
+                  "items":{"type":"object","properties":{"sku":{"x-component":"Input"}}}}}}}""");
+        first.close();
+
+        SchemaService second = newServiceAt(tmp);
+        assertEquals(List.of("persisted"), ids(second.searchSchemas(new SchemaQuery("ArrayTable", null, null, null), 10)));
+        assertEquals(List.of("persisted"), ids(second.searchSchemas(new SchemaQuery("Input", "sku", null, null), 10)));
+    }
+}
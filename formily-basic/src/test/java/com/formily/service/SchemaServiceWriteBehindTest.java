@@ -0,0 +1,152 @@
+package com.formily.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.formily.config.StorageProperties;
+import com.formily.model.Schema;
+import com.formily.model.SchemaQuery;
+import com.formily.store.FileSchemaStore;
+import com.formily.store.FsyncPolicy;
+import com.formily.store.SchemaStore;
+import com.formily.store.StorageEncoding;
+import com.formily.store.StorageLayout;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SchemaServiceWriteBehindTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger schemaWrites = new AtomicInteger();
+    private final AtomicInteger dataWrites = new AtomicInteger();
+
+    private FileSchemaStore countingStore(Path tmp) throws IOException {
+        return new FileSchemaStore(tmp.resolve("schema"), tmp.resolve("data"), StorageLayout.FLAT,
+                StorageEncoding.JSON, FsyncPolicy.NONE, 0, objectMapper) {
+            @Override
+            public void put(Schema schema) throws IOException {
+                schemaWrites.incrementAndGet();
+                super.put(schema);
+            }
+
+            @Override
+            public void putData(String id, JsonNode data) throws IOException {
+                dataWrites.incrementAndGet();
+                super.putData(id, data);
+            }
+        };
+    }
+
+    private StorageProperties writeBehind() {
+        StorageProperties properties = new StorageProperties();
+        properties.getCache().setWatchEnabled(false);
+        properties.getWriteBehind().setEnabled(true);
+        // Long enough that only explicit flushes and close() reach the disk during the test.
+        properties.getWriteBehind().setFlushIntervalMillis(60_000);
+        return properties;
+    }
+
+    private Schema schema(String id, String title, String name) throws IOException {
+        Schema schema = new Schema();
+        schema.setId(id);
+        schema.setValue(objectMapper.readTree("""
+                {"schema":{"type":"object","title":"%s","properties":{"name":{"type":"string"}}},
+                 "initial_values":{"name":"%s"}}""".formatted(title, name)));
+        return schema;
+    }
+
+    @Test
+    void repeatedSaves_areVisibleImmediatelyAndReachTheDiskOnceOnClose(@TempDir Path tmp) throws Exception {
+        SchemaService service = new SchemaService(writeBehind(), countingStore(tmp));
+        for (int i = 0; i < 20; i++) {
+            service.saveSchema(schema("auto", "Draft " + i, "v" + i));
+        }
+
+        assertEquals(0, schemaWrites.get());
+        assertEquals(0, dataWrites.get());
+        Schema latest = service.getSchemaById("auto");
+        assertEquals("Draft 19", latest.getValue().at("/schema/title").asText());
+        assertEquals("v19", latest.getValue().at("/initial_values/name").asText());
+        assertEquals(List.of("auto"), service.searchSchemas(new SchemaQuery(null, null, "Draft 19", null), 10).ids());
+        assertNotNull(service.getSchemaVersion("auto"));
+        assertEquals(1, service.getAllSchemas().size());
+
+        service.close();
+        assertEquals(1, schemaWrites.get());
+        assertEquals(1, dataWrites.get());
+
+        SchemaService reopened = new SchemaService(new StorageProperties(), countingStore(tmp));
+        try {
+            Schema stored = reopened.getSchemaById("auto");
+            assertEquals("Draft 19", stored.getValue().at("/schema/title").asText());
+            assertEquals("v19", stored.getValue().at("/initial_values/name").asText());
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    void flush_coalescesPerIdAndKeepsVersionsAndDeletes(@TempDir Path tmp) throws Exception {
+        SchemaStore disk = countingStore(tmp);
+        disk.put(schema("gone", "Old", "x"));
+        schemaWrites.set(0);
+        WriteBehindStore store = new WriteBehindStore(disk, new StripedLocks(4), 60_000, SchemaMetrics.none());
+        try {
+            store.put(schema("a", "A1", "a"));
+            store.put(schema("a", "A2", "a"));
+            store.putData("a", objectMapper.readTree("{\"name\":\"a\"}"));
+            store.put(schema("b", "B", "b"));
+            assertTrue(store.delete("gone"));
+            assertFalse(store.delete("never"));
+
+            assertFalse(store.get("a").getValue().has("initial_values"));
+            assertNull(store.get("gone"));
+            assertNotNull(disk.get("gone"), "deletes are deferred too");
+            List<String> ids = new ArrayList<>();
+            store.scan(entry -> ids.add(entry.id()));
+            assertEquals(List.of("a", "b"), ids.stream().sorted().toList());
+            SchemaStore.EntryInfo pending = store.stat("a");
+
+            assertEquals(5, store.flush());
+            assertEquals(0, store.pendingCount());
+            assertEquals(2, schemaWrites.get());
+            assertEquals("A2", disk.get("a").getValue().at("/schema/title").asText());
+            assertNull(disk.get("gone"));
+            // Flushing does not change what clients were told the version is.
+            assertEquals(pending, store.stat("a"));
+            assertEquals(0, store.flush());
+        } finally {
+            store.close();
+        }
+    }
+
+    @Test
+    void aliases_areDroppedOnceTheFlushedEntryChangesOnDisk(@TempDir Path tmp) throws Exception {
+        SchemaStore disk = countingStore(tmp);
+        WriteBehindStore store = new WriteBehindStore(disk, new StripedLocks(4), 60_000, SchemaMetrics.none());
+        try {
+            store.put(schema("a", "A", "a"));
+            store.put(schema("b", "B", "b"));
+            store.putData("b", objectMapper.readTree("{\"name\":\"b\"}"));
+            store.flush();
+            assertEquals(3, store.aliasCount());
+
+            // Rewritten and deleted behind the store's back.
+            disk.put(schema("a", "A, edited elsewhere", "a"));
+            disk.deleteData("b");
+
+            assertEquals(disk.stat("a"), store.stat("a"));
+            assertNull(store.statData("b"));
+            assertEquals(1, store.aliasCount());
+        } finally {
+            store.close();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.formily.store;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AtomicFileWriterTest {
+
+    @Test
+    void write_replacesContentAsUtf8(@TempDir Path tmp) throws Exception {
+        Path target = tmp.resolve("a.json");
+        Files.writeString(target, "old");
+
+        for (FsyncPolicy policy : FsyncPolicy.values()) {
+            try (AtomicFileWriter writer = new AtomicFileWriter(policy, 10)) {
+                writer.write(target, out -> out.write("{\"title\":\"基本信息\"}".getBytes(StandardCharsets.UTF_8)));
+            }
+            assertEquals("{\"title\":\"基本信息\"}", Files.readString(target, StandardCharsets.UTF_8));
+        }
+        assertEquals(1, listing(tmp), "no temp files should be left behind");
+    }
+
+    @Test
+    void failedWrite_keepsPreviousFileIntact(@TempDir Path tmp) throws Exception {
+        Path target = tmp.resolve("a.json");
+        Files.writeString(target, "old");
+
+        try (AtomicFileWriter writer = new AtomicFileWriter(FsyncPolicy.NONE, 10)) {
+            assertThrows(IOException.class, () -> writer.write(target, out -> {
+                out.write("partial".getBytes(StandardCharsets.UTF_8));
+                throw new IOException("serializer failed");
+            }));
+        }
+
+        assertEquals("old", Files.readString(target));
+        assertEquals(1, listing(tmp));
+    }
+
+    @Test
+    void cleanupTempFiles_removesCrashLeftovers(@TempDir Path tmp) throws Exception {
+        Files.writeString(tmp.resolve("a.json"), "{}");
+        Files.writeString(tmp.resolve(".a.json123.tmp"), "{\"half");
+
+        AtomicFileWriter.cleanupTempFiles(tmp);
+
+        assertEquals(1, listing(tmp));
+        assertTrue(Files.exists(tmp.resolve("a.json")));
+    }
+
+    private static long listing(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.count();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.formily.store;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.formily.model.Schema;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileSchemaStoreLayoutTest {
+
+    private static final String ID = "abcd0123456789abcdef0123456789ab";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private FileSchemaStore open(Path tmp, StorageLayout layout) throws IOException {
+        return new FileSchemaStore(tmp.resolve("schema"), tmp.resolve("data"), layout, StorageEncoding.PRETTY_JSON,
+                FsyncPolicy.NONE, 0, objectMapper);
+    }
+
+    private Schema schema(String id, String title) {
+        ObjectNode value = objectMapper.createObjectNode();
+        value.set("schema", objectMapper.createObjectNode().put("title", title));
+        Schema schema = new Schema();
+        schema.setId(id);
+        schema.setValue(value);
+        return schema;
+    }
+
+    @Test
+    void shardedLayout_writesUnderHexPrefixDirectories(@TempDir Path tmp) throws Exception {
+        try (FileSchemaStore store = open(tmp, StorageLayout.SHARDED)) {
+            store.put(schema(ID, "T"));
+            store.putData(ID, objectMapper.readTree("{\"k\":1}"));
+        }
+
+        assertTrue(Files.exists(tmp.resolve("schema/ab/cd/" + ID + ".json")));
+        assertTrue(Files.exists(tmp.resolve("data/ab/cd/" + ID + ".json")));
+        assertTrue(FileSchemaStore.shardPrefix("My-Form").matches("[0-9a-f]{4}"),
+                "non-hex ids are sharded by their hash");
+    }
+
+    @Test
+    void shardedLayout_fallsBackToFlatFilesAndRelocatesThem(@TempDir Path tmp) throws Exception {
+        try (FileSchemaStore flat = open(tmp, StorageLayout.FLAT)) {
+            flat.put(schema(ID, "old"));
+            flat.putData(ID, objectMapper.readTree("{\"k\":1}"));
+            flat.put(schema("custom-id", "custom"));
+        }
+
+        try (FileSchemaStore store = open(tmp, StorageLayout.SHARDED)) {
+            assertEquals("old", store.get(ID).getValue().get("schema").get("title").asText());
+            assertEquals(1, store.getData(ID).get("k").asInt());
+            assertEquals(2, store.misplacedIds().size());
+
+            for (String id : store.misplacedIds()) {
+                assertTrue(store.relocate(id));
+            }
+
+            assertTrue(store.misplacedIds().isEmpty());
+            assertFalse(Files.exists(tmp.resolve("schema/" + ID + ".json")));
+            assertTrue(Files.exists(tmp.resolve("schema/ab/cd/" + ID + ".json")));
+            assertEquals("custom", store.get("custom-id").getValue().get("schema").get("title").asText());
+            assertEquals(1, store.getData(ID).get("k").asInt());
+        }
+    }
+
+    @Test
+    void scan_reportsEachIdOnceWhileBothLayoutsHoldACopy(@TempDir Path tmp) throws Exception {
+        try (FileSchemaStore flat = open(tmp, StorageLayout.FLAT)) {
+            flat.put(schema(ID, "stale"));
+        }
+        Path sharded = tmp.resolve("schema/ab/cd/" + ID + ".json");
+        Files.createDirectories(sharded.getParent());
+        Files.copy(tmp.resolve("schema/" + ID + ".json"), sharded);
+
+        try (FileSchemaStore store = open(tmp, StorageLayout.SHARDED)) {
+            List<String> ids = new ArrayList<>();
+            store.scan(entry -> ids.add(entry.id()));
+            assertEquals(List.of(ID), ids);
+        }
+    }
+
+    @Test
+    void put_removesCopyLeftInPreviousLayout(@TempDir Path tmp) throws Exception {
+        try (FileSchemaStore flat = open(tmp, StorageLayout.FLAT)) {
+            flat.put(schema(ID, "old"));
+        }
+        try (FileSchemaStore store = open(tmp, StorageLayout.SHARDED)) {
+            store.put(schema(ID, "new"));
+
+            assertFalse(Files.exists(tmp.resolve("schema/" + ID + ".json")));
+            assertEquals("new", store.get(ID).getValue().get("schema").get("title").asText());
+            assertTrue(store.delete(ID));
+            assertNull(store.get(ID));
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.formily.store;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.formily.model.Schema;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogSchemaStoreTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private LogSchemaStore open(Path dir, long segmentMaxBytes) throws IOException {
+        return new LogSchemaStore(dir, FsyncPolicy.NONE, 0, segmentMaxBytes, 0, 0.5, StorageEncoding.JSON, objectMapper);
+    }
+
+    private Schema schema(String id, String title) {
+        ObjectNode value = objectMapper.createObjectNode();
+        value.set("schema", objectMapper.createObjectNode().put("type", "object").put("title", title));
+        value.set("initial_values", objectMapper.createObjectNode().put("k", "v"));
+        Schema schema = new Schema();
+        schema.setId(id);
+        schema.setValue(value);
+        return schema;
+    }
+
+    private static String title(Schema schema) {
+        return schema.getValue().get("schema").get("title").asText();
+    }
+
+    @Test
+    void putGetDelete_andDataOperations(@TempDir Path tmp) throws Exception {
+        try (LogSchemaStore store = open(tmp, 1 << 20)) {
+            store.put(schema("a", "A1"));
+            store.put(schema("a", "A2"));
+            store.putData("a", objectMapper.readTree("{\"k\":1}"));
+
+            Schema read = store.get("a");
+            assertEquals("A2", title(read));
+            assertFalse(read.getValue().has("initial_values"), "initial_values belong to the data record");
+            assertEquals(1, store.getData("a").get("k").asInt());
+            assertNotNull(store.stat("a"));
+
+            assertTrue(store.delete("a"));
+            assertFalse(store.delete("a"));
+            assertNull(store.get("a"));
+            assertTrue(store.deleteData("a"));
+            assertNull(store.getData("a"));
+        }
+    }
+
+    @Test
+    void reopen_recoversIndexFromSegments(@TempDir Path tmp) throws Exception {
+        try (LogSchemaStore store = open(tmp, 256)) {
+            for (int i = 0; i < 20; i++) {
+                store.put(schema("s" + i, "T" + i));
+            }
+            store.put(schema("s3", "updated"));
+            store.delete("s5");
+            store.putData("s1", objectMapper.readTree("{\"x\":true}"));
+        }
+        assertTrue(segmentFiles(tmp).size() > 1, "small segment size should force rolling");
+
+        try (LogSchemaStore store = open(tmp, 256)) {
+            List<String> ids = new ArrayList<>();
+            store.scan(entry -> ids.add(entry.id()));
+            assertEquals(19, ids.size());
+            assertEquals("updated", title(store.get("s3")));
+            assertNull(store.get("s5"));
+            assertTrue(store.getData("s1").get("x").asBoolean());
+        }
+    }
+
+    @Test
+    void reopen_truncatesTornTailRecord(@TempDir Path tmp) throws Exception {
+        try (LogSchemaStore store = open(tmp, 1 << 20)) {
+            store.put(schema("a", "A"));
+            store.put(schema("b", "B"));
+        }
+        Path segment = segmentFiles(tmp).get(0);
+        long intactSize = Files.size(segment);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            // Simulate a crash halfway through the last record.
+            channel.truncate(intactSize - 5);
+        }
+
+        try (LogSchemaStore store = open(tmp, 1 << 20)) {
+            assertEquals("A", title(store.get("a")));
+            assertNull(store.get("b"));
+            store.put(schema("c", "C"));
+        }
+        try (LogSchemaStore store = open(tmp, 1 << 20)) {
+            assertEquals("C", title(store.get("c")), "appends after truncation must be readable");
+        }
+    }
+
+    @Test
+    void compact_dropsDeadSegmentsAndKeepsLatestState(@TempDir Path tmp) throws Exception {
+        try (LogSchemaStore store = open(tmp, 256)) {
+            for (int round = 0; round < 5; round++) {
+                for (int i = 0; i < 4; i++) {
+                    store.put(schema("s" + i, "round" + round));
+                }
+            }
+            store.delete("s0");
+            int before = segmentFiles(tmp).size();
+
+            store.compact();
+
+            assertTrue(segmentFiles(tmp).size() < before, "fully overwritten segments should be removed");
+            assertNull(store.get("s0"));
+            assertEquals("round4", title(store.get("s3")));
+        }
+        try (LogSchemaStore store = open(tmp, 256)) {
+            assertNull(store.get("s0"), "deletes must survive compaction and recovery");
+            for (int i = 1; i < 4; i++) {
+                assertEquals("round4", title(store.get("s" + i)));
+            }
+        }
+    }
+
+    private static List<Path> segmentFiles(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.getFileName().toString().endsWith(".log")).sorted().toList();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.formily.store;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.formily.model.Schema;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StorageEncodingTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private FileSchemaStore openFile(Path tmp, StorageEncoding encoding) throws Exception {
+        return new FileSchemaStore(tmp.resolve("schema"), tmp.resolve("data"), StorageLayout.FLAT, encoding,
+                FsyncPolicy.NONE, 0, objectMapper);
+    }
+
+    private Schema schema(String id, String title) {
+        ObjectNode value = objectMapper.createObjectNode();
+        value.set("schema", objectMapper.createObjectNode().put("title", title));
+        Schema schema = new Schema();
+        schema.setId(id);
+        schema.setValue(value);
+        return schema;
+    }
+
+    @Test
+    void fileStore_readsMixedEncodingsAndReencodesThem(@TempDir Path tmp) throws Exception {
+        try (FileSchemaStore pretty = openFile(tmp, StorageEncoding.PRETTY_JSON)) {
+            pretty.put(schema("a", "json"));
+            pretty.putData("a", objectMapper.readTree("{\"k\":1}"));
+        }
+        try (FileSchemaStore cbor = openFile(tmp, StorageEncoding.CBOR)) {
+            cbor.put(schema("b", "cbor"));
+        }
+        // Legacy value-only file must survive re-encoding with its shape intact.
+        Files.writeString(tmp.resolve("schema/legacy.json"), "{\"schema\":{\"title\":\"legacy\"}}");
+
+        try (FileSchemaStore store = openFile(tmp, StorageEncoding.SMILE)) {
+            assertEquals("json", store.get("a").getValue().get("schema").get("title").asText());
+            assertEquals("cbor", store.get("b").getValue().get("schema").get("title").asText());
+            assertEquals(List.of("a", "b", "legacy"), store.misplacedIds().stream().sorted().toList());
+
+            for (String id : store.misplacedIds()) {
+                assertTrue(store.relocate(id));
+            }
+
+            assertTrue(store.misplacedIds().isEmpty());
+            assertTrue(Files.exists(tmp.resolve("schema/a.smile")));
+            assertFalse(Files.exists(tmp.resolve("schema/a.json")));
+            assertFalse(Files.exists(tmp.resolve("schema/b.cbor")));
+            assertEquals(":)\n", new String(Files.readAllBytes(tmp.resolve("schema/b.smile")), 0, 3));
+            assertEquals(1, store.getData("a").get("k").asInt());
+            Schema legacy = store.get("legacy");
+            assertEquals("legacy", legacy.getId());
+            assertEquals("legacy", legacy.getValue().get("schema").get("title").asText());
+
+            List<String> ids = new ArrayList<>();
+            store.scan(entry -> ids.add(entry.id()));
+            assertEquals(List.of("a", "b", "legacy"), ids.stream().sorted().toList());
+        }
+    }
+
+    @Test
+    void withoutInitialValues_writesTheSameBytesAsACopyWithoutTheKey() throws Exception {
+        Schema schema = schema("s", "filtered");
+        ObjectNode value = (ObjectNode) schema.getValue();
+        value.set("initial_values", objectMapper.createObjectNode().put("name", "x"));
+        value.put("version", 3);
+
+        Schema copied = schema("s", "filtered");
+        ((ObjectNode) copied.getValue()).put("version", 3);
+        for (StorageEncoding encoding : StorageEncoding.values()) {
+            StorageCodecs codecs = new StorageCodecs(encoding, objectMapper);
+            assertArrayEquals(codecs.writer().writeValueAsBytes(copied),
+                    codecs.writer().writeValueAsBytes(StoreSupport.withoutInitialValues(schema)), encoding.name());
+        }
+        // The caller's tree is streamed, not modified.
+        assertEquals("x", schema.getValue().get("initial_values").get("name").asText());
+    }
+
+    @Test
+    void logStore_readsRecordsWrittenWithAnotherEncoding(@TempDir Path tmp) throws Exception {
+        try (LogSchemaStore json = new LogSchemaStore(tmp, FsyncPolicy.NONE, 0, 1 << 20, 0, 0.5,
+                StorageEncoding.JSON, objectMapper)) {
+            json.put(schema("a", "json"));
+        }
+        try (LogSchemaStore smile = new LogSchemaStore(tmp, FsyncPolicy.NONE, 0, 1 << 20, 0, 0.5,
+                StorageEncoding.SMILE, objectMapper)) {
+            smile.putData("a", objectMapper.readTree("{\"k\":1}"));
+            smile.put(schema("b", "smile"));
+
+            assertEquals("json", smile.get("a").getValue().get("schema").get("title").asText());
+            assertEquals("smile", smile.get("b").getValue().get("schema").get("title").asText());
+            assertEquals(1, smile.getData("a").get("k").asInt());
+        }
+    }
+
+    @Test
+    void forContent_sniffsCborByTagOrMajorTypeAndReadsBomPrefixedTextAsJson() throws Exception {
+        StorageCodecs codecs = new StorageCodecs(StorageEncoding.JSON, objectMapper);
+        byte[] bom = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+        byte[] text = "{\"k\":1}".getBytes(StandardCharsets.UTF_8);
+        byte[] withBom = Arrays.copyOf(bom, bom.length + text.length);
+        System.arraycopy(text, 0, withBom, bom.length, text.length);
+        ObjectMapper plainCbor = new ObjectMapper(new CBORFactory());
+        byte[] untagged = plainCbor.writeValueAsBytes(objectMapper.readTree(text));
+        byte[] tagged = new StorageCodecs(StorageEncoding.CBOR, objectMapper).writer()
+                .writeValueAsBytes(objectMapper.readTree(text));
+
+        for (byte[] bytes : List.of(text, withBom, untagged, tagged)) {
+            assertEquals(1, codecs.forContent(bytes).readTree(bytes).get("k").asInt());
+        }
+        assertSame(codecs.forContent(text), codecs.forContent(withBom));
+        assertSame(codecs.forContent(tagged), codecs.forContent(untagged));
+        assertNotSame(codecs.forContent(text), codecs.forContent(tagged));
+    }
+}
@@ -0,0 +1,185 @@
+package com.formily.store;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.formily.model.SubmissionPage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SubmissionStoreTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private SubmissionStore open(Path dir, long segmentMaxBytes) throws IOException {
+        return new SubmissionStore(dir, FsyncPolicy.NONE, 0, segmentMaxBytes, 0, objectMapper);
+    }
+
+    private List<JsonNode> submissions(int from, int count) {
+        List<JsonNode> data = new ArrayList<>();
+        for (int i = from; i < from + count; i++) {
+            data.add(objectMapper.createObjectNode().put("n", i).put("name", "user " + i));
+        }
+        return data;
+    }
+
+    private static long segmentCount(Path dir) throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.count();
+        }
+    }
+
+    @Test
+    void appendAndRead_pagesAcrossSegmentsAndIndexIntervals(@TempDir Path tmp) throws Exception {
+        try (SubmissionStore store = open(tmp, 4096)) {
+            assertEquals(0, store.append("a", submissions(0, 1)));
+            assertEquals(1, store.append("a", submissions(1, 499)));
+            store.append("b", submissions(1000, 1));
+            assertTrue(segmentCount(tmp.resolve("a")) > 1, "small segments roll over");
+
+            // Pages start mid-segment, mid-interval and at segment boundaries alike.
+            List<Integer> seen = new ArrayList<>();
+            long from = 0;
+            SubmissionPage page;
+            do {
+                page = store.read("a", from, 77);
+                for (JsonNode item : page.items()) {
+                    assertEquals(seen.size(), item.get("seq").asInt());
+                    assertEquals(item.get("seq").asLong(), item.get("data").get("n").asLong());
+                    assertTrue(item.get("submittedAt").asLong() > 0);
+                    seen.add(item.get("data").get("n").asInt());
+                }
+                assertEquals(500, page.total());
+                from = page.next();
+            } while (!page.items().isEmpty());
+            assertEquals(500, seen.size());
+            for (int i = 0; i < seen.size(); i++) {
+                assertEquals(i, seen.get(i));
+            }
+            assertEquals(List.of(131, 132), store.read("a", 131, 2).items().stream()
+                    .map(item -> item.get("seq").asInt()).toList());
+            assertEquals(1, store.count("b"));
+            assertEquals(1000, store.read("b", 0, 10).items().get(0).get("data").get("n").asInt());
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            assertEquals(500, store.copyTo("a", 250, out));
+            String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+            assertEquals(250, lines.length);
+            assertEquals(250, objectMapper.readTree(lines[0]).get("seq").asInt());
+            assertEquals(499, objectMapper.readTree(lines[249]).get("seq").asInt());
+
+            assertThrows(IllegalArgumentException.class, () -> store.append("../a", submissions(0, 1)));
+        }
+    }
+
+    @Test
+    void reopen_continuesTheSequenceAndDropsATornTail(@TempDir Path tmp) throws Exception {
+        try (SubmissionStore store = open(tmp, 4096)) {
+            store.append("a", submissions(0, 300));
+        }
+        Path last;
+        try (Stream<Path> files = Files.list(tmp.resolve("a"))) {
+            last = files.max(Path::compareTo).orElseThrow();
+        }
+        // A crash in the middle of a write leaves a partial line behind.
+        Files.write(last, "{\"seq\":300,\"submitted".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        try (SubmissionStore store = open(tmp, 4096)) {
+            assertEquals(300, store.count("a"));
+            assertEquals(300, store.append("a", submissions(300, 2)));
+            SubmissionPage page = store.read("a", 299, 10);
+            assertEquals(List.of(299, 300, 301), page.items().stream().map(item -> item.get("data").get("n").asInt()).toList());
+            assertEquals(302, page.next());
+        }
+        try (SubmissionStore store = open(tmp, 4096)) {
+            assertEquals(302, store.count("a"));
+            assertEquals(301, store.read("a", 301, 1).items().get(0).get("seq").asInt());
+        }
+    }
+
+    @Test
+    void reopen_truncatesAtARecordOutOfSequenceAndSetsLaterSegmentsAside(@TempDir Path tmp) throws Exception {
+        try (SubmissionStore store = open(tmp, 4096)) {
+            for (int i = 0; i < 300; i += 10) {
+                store.append("a", submissions(i, 10));
+            }
+        }
+        List<Path> segments;
+        try (Stream<Path> files = Files.list(tmp.resolve("a"))) {
+            segments = files.sorted().toList();
+        }
+        assertTrue(segments.size() > 2);
+        // A complete line that is not the record expected at this position.
+        Path first = segments.get(0);
+        List<String> lines = new ArrayList<>(Files.readAllLines(first, StandardCharsets.UTF_8));
+        lines.set(3, lines.get(3).replace("{\"seq\":3,", "{\"seq\":7,"));
+        Files.write(first, lines, StandardCharsets.UTF_8);
+
+        try (SubmissionStore store = open(tmp, 4096)) {
+            assertEquals(3, store.count("a"));
+            assertEquals(3, store.append("a", submissions(3, 1)));
+            assertEquals(List.of(2, 3), store.read("a", 2, 10).items().stream()
+                    .map(item -> item.get("seq").asInt()).toList());
+        }
+        assertTrue(Files.exists(segments.get(1).resolveSibling(segments.get(1).getFileName() + ".corrupt")));
+        assertFalse(Files.exists(segments.get(1)));
+    }
+
+    @Test
+    void readsDoNotCreateLogsAndIdleLogsReopenOnNextAccess(@TempDir Path tmp) throws Exception {
+        try (SubmissionStore store = new SubmissionStore(tmp, FsyncPolicy.BATCH, 5, 4096, 20, objectMapper)) {
+            assertEquals(0, store.count("missing"));
+            assertTrue(store.read("missing", 0, 10).items().isEmpty());
+            assertEquals(0, store.copyTo("missing", 0, new ByteArrayOutputStream()));
+            assertFalse(Files.exists(tmp.resolve("missing")));
+
+            store.append("a", submissions(0, 5));
+            Thread.sleep(200);
+            // Closed as idle in the meantime; the next append reopens the log and continues the sequence.
+            assertEquals(5, store.append("a", submissions(5, 5)));
+            store.release("a");
+            assertEquals(10, store.count("a"));
+            assertEquals(9, store.read("a", 9, 1).items().get(0).get("data").get("n").asInt());
+        }
+    }
+
+    @Test
+    void interruptedSync_failsFastAndLeavesTheLogUsable(@TempDir Path tmp) throws Exception {
+        try (SubmissionStore store = new SubmissionStore(tmp, FsyncPolicy.BATCH, 60_000, 4096, 0, objectMapper)) {
+            store.append("a", submissions(0, 3));
+
+            // Forcing with the interrupt flag set closes the channel for every thread.
+            AtomicReference<Throwable> failure = new AtomicReference<>();
+            Thread syncer = new Thread(() -> {
+                Thread.currentThread().interrupt();
+                try {
+                    store.sync();
+                } catch (Throwable e) {
+                    failure.set(e);
+                }
+            });
+            syncer.start();
+            syncer.join(5_000);
+            assertFalse(syncer.isAlive(), "an interrupted sync must not spin on the closed channel");
+            assertInstanceOf(ClosedByInterruptException.class, failure.get());
+
+            assertEquals(3, store.append("a", submissions(3, 2)));
+            store.sync();
+            assertEquals(5, store.count("a"));
+            assertEquals(4, store.read("a", 4, 1).items().get(0).get("data").get("n").asInt());
+        }
+    }
+}